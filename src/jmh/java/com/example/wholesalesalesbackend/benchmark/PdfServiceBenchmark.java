@@ -0,0 +1,141 @@
+package com.example.wholesalesalesbackend.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+
+import com.example.wholesalesalesbackend.dto.SaleReportRow;
+import com.example.wholesalesalesbackend.service.PdfService;
+
+/**
+ * Renders synthetic sales reports through PdfService.writeSalesPdf into a
+ * discarding stream. Besides ops/s, each run reports rows/s and, averaged
+ * over the reports rendered, the bytes the rendering thread allocated per row
+ * and the size of the PDF; -prof gc adds
+ * gc.alloc.rate.norm (bytes per report) as a cross-check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class PdfServiceBenchmark {
+
+    @Param({ "100", "10000", "100000" })
+    public int rows;
+
+    @Param({ "false", "true" })
+    public boolean allClient;
+
+    private final PdfService pdfService = new PdfService();
+
+    private List<SaleReportRow> sales;
+
+    @Setup(Level.Trial)
+    public void createRows() {
+        sales = new ArrayList<>(rows);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        for (int i = 0; i < rows; i++) {
+            boolean isReturn = i % 10 == 0;
+            // Paise
+            long price = 5_000 + (i % 500) * 100L;
+            sales.add(new SaleReportRow(
+                    start.plusMinutes(i * 7L),
+                    (isReturn ? "RETURN -> " : "ADD -> ") + "Type-C cable " + (i % 40),
+                    isReturn ? -price : price,
+                    isReturn,
+                    "Client " + (i % 1000)));
+        }
+    }
+
+    // Per-report averages; see PerCallCounters for how they are reported
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ReportStats {
+        public double pdfBytes;
+        public double allocatedBytesPerRow;
+
+        private long reports;
+        private long totalBytes;
+        private long totalAllocatedPerRow;
+
+        void add(long bytes, long allocatedPerRow) {
+            reports++;
+            totalBytes += bytes;
+            totalAllocatedPerRow += allocatedPerRow;
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            reports = 0;
+            totalBytes = 0;
+            totalAllocatedPerRow = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void publish(BenchmarkParams benchmark, IterationParams iteration) {
+            pdfBytes = PerCallCounters.average(totalBytes, reports, benchmark, iteration);
+            allocatedBytesPerRow = PerCallCounters.average(totalAllocatedPerRow, reports, benchmark, iteration);
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RowCounter {
+        // Reported as rows per second
+        public long renderedRows;
+    }
+
+    @Benchmark
+    public long render(ReportStats stats, RowCounter counter) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+
+        CountingOutputStream out = new CountingOutputStream();
+        pdfService.writeSalesPdf(out, allClient ? "All_Clients" : "Client 1", sales.iterator(),
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), allClient, 0.0, null, 1250.0);
+
+        stats.add(out.count, (threads.getCurrentThreadAllocatedBytes() - allocatedBefore) / rows);
+        counter.renderedRows += rows;
+        return out.count;
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) throws IOException {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            count += len;
+        }
+    }
+
+}
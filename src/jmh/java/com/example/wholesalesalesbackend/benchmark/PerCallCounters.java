@@ -0,0 +1,29 @@
+package com.example.wholesalesalesbackend.benchmark;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+/**
+ * JMH sums @AuxCounters(EVENTS) values over the measurement iterations and
+ * threads, so a per-call average reported as is comes out multiplied by
+ * their number. Each measurement iteration therefore reports its average
+ * divided by that number, and the run's score is the average itself. Warmup
+ * iterations show it undivided.
+ */
+final class PerCallCounters {
+
+    private PerCallCounters() {
+    }
+
+    static double average(long total, long calls, BenchmarkParams benchmark, IterationParams iteration) {
+        if (calls == 0) {
+            return 0;
+        }
+        double shares = iteration.getType() == IterationType.MEASUREMENT
+                ? (double) iteration.getCount() * benchmark.getThreads()
+                : 1;
+        return total / (double) calls / shares;
+    }
+
+}
@@ -0,0 +1,235 @@
+package com.example.wholesalesalesbackend.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.wholesalesalesbackend.WholesaleSalesBackendApplication;
+import com.example.wholesalesalesbackend.dto.ProfitAndSale;
+import com.example.wholesalesalesbackend.dto.SaleEntryDTO;
+import com.example.wholesalesalesbackend.repository.SaleEntryRepository;
+import com.example.wholesalesalesbackend.service.ClientBalanceService;
+import com.example.wholesalesalesbackend.service.SaleEntryService;
+import com.example.wholesalesalesbackend.service.SaleRollupService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Service-layer read paths against an embedded PostgreSQL seeded with 1k
+ * clients and 1M sale entries. Throughput gives ops/s, SampleTime gives the
+ * latency percentiles (p0.99), and the sqlStatements counter is the average
+ * number of JDBC statements Hibernate prepared per call, so N+1 patterns show
+ * up as more than one or two.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class SalesQueryBenchmark {
+
+    private static final int CLIENTS = 1_000;
+    private static final int SALES = 1_000_000;
+
+    // Seeded sales are 90 seconds apart from here, about 2.9 years in total
+    private static final LocalDateTime FIRST_SALE = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+
+    private SaleEntryService saleEntryService;
+    private SaleEntryRepository saleEntryRepository;
+    private ClientBalanceService clientBalanceService;
+    private ObjectMapper objectMapper;
+    private Statistics statistics;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+
+        context = new SpringApplicationBuilder(WholesaleSalesBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                // Command-line arguments outrank application.properties
+                .run("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=postgres",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        // Keep the PDF job poller and the balance view refresh out of the statement counts
+                        "--pdf.jobs.poll-delay-ms=86400000",
+                        "--clients.balance-summary.refresh-delay-ms=86400000");
+
+        seed(context.getBean(JdbcTemplate.class));
+        context.getBean(SaleRollupService.class).rebuild();
+        context.getBean(JdbcTemplate.class).execute("ANALYZE");
+
+        saleEntryService = context.getBean(SaleEntryService.class);
+        saleEntryRepository = context.getBean(SaleEntryRepository.class);
+        clientBalanceService = context.getBean(ClientBalanceService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static void seed(JdbcTemplate jdbc) {
+        jdbc.update("INSERT INTO clients (name, location, contact) " +
+                "SELECT 'Client ' || g, 'City ' || (g % 20), '9' || lpad(g::text, 9, '0') " +
+                "FROM generate_series(1, ?) g", CLIENTS);
+
+        jdbc.update("INSERT INTO accessory (name) " +
+                "SELECT 'Accessory ' || g FROM generate_series(0, 199) g");
+
+        // Monthly partitions for the seeded period, so queries are pruned as in production
+        jdbc.queryForList("SELECT create_sale_entry_partition(CAST(m AS date)) " +
+                "FROM generate_series(timestamp '2022-01-01', timestamp '2024-12-01', interval '1 month') m");
+
+        // Every tenth entry is a return; clients get entries round-robin over the whole period.
+        // Amounts are in paise
+        jdbc.update("INSERT INTO sale_entry (accessory_id, quantity, total_price, profit, return_flag, " +
+                "sale_date_time, client_id, note) " +
+                "SELECT a.id, " +
+                "1 + g % 5, " +
+                "CASE WHEN g % 10 = 0 THEN -1 ELSE 1 END * (50 + g % 500) * 100, " +
+                "CASE WHEN g % 10 = 0 THEN -1 ELSE 1 END * (5 + g % 50) * 100, " +
+                "g % 10 = 0, " +
+                "timestamp '2022-01-01 00:00:00' + g * interval '90 seconds', " +
+                "1 + g % ?, NULL " +
+                "FROM generate_series(1, ?) g JOIN accessory a ON a.name = 'Accessory ' || (g % 200)",
+                CLIENTS, SALES);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    // Statements prepared per call, averaged; see PerCallCounters for how it is reported
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class SqlCounter {
+        public double sqlStatements;
+
+        private long calls;
+        private long totalStatements;
+
+        void add(long statements) {
+            calls++;
+            totalStatements += statements;
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            calls = 0;
+            totalStatements = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void publish(BenchmarkParams benchmark, IterationParams iteration) {
+            sqlStatements = PerCallCounters.average(totalStatements, calls, benchmark, iteration);
+        }
+    }
+
+    private static long randomClient() {
+        return 1 + ThreadLocalRandom.current().nextInt(CLIENTS);
+    }
+
+    // A random calendar month inside the seeded period
+    private static LocalDateTime randomMonthStart() {
+        return FIRST_SALE.plusMonths(ThreadLocalRandom.current().nextInt(33));
+    }
+
+    @Benchmark
+    public List<SaleEntryDTO> salesByClientAndDateRange(SqlCounter counter) {
+        long before = statistics.getPrepareStatementCount();
+        LocalDateTime from = randomMonthStart();
+        List<SaleEntryDTO> sales = saleEntryService.getSalesEntryDTOByClientAndDateRange(randomClient(), from,
+                from.plusMonths(1), null, null);
+        counter.add(statistics.getPrepareStatementCount() - before);
+        return sales;
+    }
+
+    // Loads all 1M rows and serializes them as the controller response would be
+    @Benchmark
+    public long allSalesWithJsonMapping(SqlCounter counter) throws IOException {
+        long before = statistics.getPrepareStatementCount();
+        CountingOutputStream out = new CountingOutputStream();
+        objectMapper.writeValue(out, saleEntryService.getAllSales());
+        counter.add(statistics.getPrepareStatementCount() - before);
+        return out.count;
+    }
+
+    // Partial first and last days, so both the rollup and the raw sum paths run
+    @Benchmark
+    public ProfitAndSale totalProfitByDateRange(SqlCounter counter) {
+        long before = statistics.getPrepareStatementCount();
+        LocalDateTime from = randomMonthStart().plusHours(10);
+        ProfitAndSale totals = saleEntryService.getTotalProfitByDateRange(from, from.plusMonths(1).minusHours(3),
+                null, randomClient());
+        counter.add(statistics.getPrepareStatementCount() - before);
+        return totals;
+    }
+
+    // The original full-history sum over sale_entry
+    @Benchmark
+    public Long oldBalanceOfClient(SqlCounter counter) {
+        long before = statistics.getPrepareStatementCount();
+        Long balance = saleEntryRepository.getOldBalanceOfClient(randomClient(), randomMonthStart().toLocalDate());
+        counter.add(statistics.getPrepareStatementCount() - before);
+        return balance;
+    }
+
+    // Snapshot plus rollup path that replaced it for statements
+    @Benchmark
+    public Double openingBalance(SqlCounter counter) {
+        long before = statistics.getPrepareStatementCount();
+        LocalDate from = randomMonthStart().toLocalDate();
+        Double balance = clientBalanceService.getOpeningBalance(randomClient(), from);
+        counter.add(statistics.getPrepareStatementCount() - before);
+        return balance;
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.example.wholesalesalesbackend.config;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read-only transactions (@Transactional(readOnly = true): reports, totals,
+ * listings, and Spring Data reads made outside a transaction) run on the
+ * replica pool when spring.datasource.replica.jdbc-url is set; everything
+ * else, and everything when it is not, runs on the primary pool. Each pool
+ * publishes hikaricp.* metrics tagged with its pool name. Reads that must not
+ * lag behind the primary go through PrimaryReads.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    // spring.datasource.* as before; Flyway migrates this one only
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties, MeterRegistry meterRegistry) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("primary");
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+
+    // jdbc-url, username, password and any other Hikari setting under spring.datasource.replica
+    @Bean
+    @ConditionalOnExpression("!'${spring.datasource.replica.jdbc-url:}'.isEmpty()")
+    @ConfigurationProperties("spring.datasource.replica")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties, MeterRegistry meterRegistry) {
+        HikariDataSource pool = DataSourceBuilder.create().type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .build();
+        pool.setPoolName("replica");
+        pool.setReadOnly(true);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") ObjectProvider<DataSource> replica) {
+        DataSource readOnly = replica.getIfAvailable();
+        if (readOnly == null) {
+            return primary;
+        }
+
+        ReadOnlyRoutingDataSource routing = new ReadOnlyRoutingDataSource();
+        routing.setTargetDataSources(Map.of(false, primary, true, readOnly));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+
+        // The transaction manager asks for the connection before it marks the
+        // transaction read-only; the proxy only picks a pool at the first statement
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    static class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        }
+    }
+
+}
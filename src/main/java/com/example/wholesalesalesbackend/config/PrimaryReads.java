@@ -0,0 +1,53 @@
+package com.example.wholesalesalesbackend.config;
+
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Runs a read on the primary where DataSourceConfig would send it to the
+ * replica: for results that outlive the request (cache loads) and for reads
+ * that must see a write made a moment ago. The replica may lag behind.
+ */
+@Component
+public class PrimaryReads {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired(required = false)
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private TransactionTemplate readWrite;
+    private TransactionTemplate separateReadWrite;
+
+    @PostConstruct
+    void init() {
+        readWrite = new TransactionTemplate(transactionManager);
+        separateReadWrite = new TransactionTemplate(transactionManager);
+        separateReadWrite.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public <T> T get(Supplier<T> read) {
+        // A read-only transaction is on the replica for good; a separate one takes a primary
+        // connection, of which the caller holds none, so the pool cannot run dry on itself
+        if (replicaDataSource != null && TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return separateReadWrite.execute(status -> read.get());
+        }
+        // Joins the caller's read-write transaction, or starts one
+        return readWrite.execute(status -> read.get());
+    }
+
+}
@@ -14,8 +14,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.wholesalesalesbackend.dto.ClientBalanceSummary;
 import com.example.wholesalesalesbackend.dto.ClientCreateRequest;
 import com.example.wholesalesalesbackend.model.Client;
+import com.example.wholesalesalesbackend.service.ClientBalanceService;
 import com.example.wholesalesalesbackend.service.ClientService;
 
 import jakarta.validation.Valid;
@@ -28,6 +30,9 @@ public class ClientController {
     @Autowired(required = false)
     private ClientService clientService;
 
+    @Autowired
+    private ClientBalanceService clientBalanceService;
+
     @PostMapping("/add")
     public ResponseEntity<Client> addClient(@RequestBody @Valid ClientCreateRequest request) {
         Client newClient = Client.builder()
@@ -44,6 +49,12 @@ public class ClientController {
         return ResponseEntity.ok(clientService.getAllClients());
     }
 
+    // Balances come from a periodically refreshed view; refreshedAt / staleSeconds say how old they are
+    @GetMapping("/balances")
+    public ResponseEntity<ClientBalanceSummary> getClientBalances() {
+        return ResponseEntity.ok(clientBalanceService.getBalanceSummary());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Client> getClientById(@PathVariable Long id) {
         return ResponseEntity.ok(clientService.getClientById(id));
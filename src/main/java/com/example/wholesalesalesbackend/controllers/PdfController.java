@@ -1,123 +1,198 @@
 package com.example.wholesalesalesbackend.controllers;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import com.example.wholesalesalesbackend.model.Client;
-import com.example.wholesalesalesbackend.model.SaleEntry;
-import com.example.wholesalesalesbackend.repository.SaleEntryRepository;
-import com.example.wholesalesalesbackend.service.ClientService;
-import com.example.wholesalesalesbackend.service.PdfService;
+import com.example.wholesalesalesbackend.dto.PdfJobStatus;
+import com.example.wholesalesalesbackend.model.PdfLog;
+import com.example.wholesalesalesbackend.service.PdfCacheService;
+import com.example.wholesalesalesbackend.service.PdfJobService;
+import com.example.wholesalesalesbackend.service.SalesReportService;
+import com.example.wholesalesalesbackend.service.StatementBatchService;
 
 @RestController
 @RequestMapping("/api/pdf")
 public class PdfController {
 
+    private static final ZoneId INDIA_ZONE = ZoneId.of("Asia/Kolkata");
+
+    @Autowired(required = false)
+    private SalesReportService salesReportService;
+
     @Autowired(required = false)
-    private PdfService pdfService;
+    private PdfJobService pdfJobService;
 
     @Autowired(required = false)
-    private ClientService clientService;
+    private PdfCacheService pdfCacheService;
 
     @Autowired(required = false)
-    SaleEntryRepository saleEntryRepository;
+    private StatementBatchService statementBatchService;
 
     @GetMapping("/sales")
-    public ResponseEntity<byte[]> generateSalesPdf(
+    public ResponseEntity<StreamingResponseBody> generateSalesPdf(
             @RequestParam(required = false) Long clientId,
             @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime from,
             @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime to,
             @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime depositDatetime,
             @RequestParam(required = false, defaultValue = "0") Integer days,
             @RequestParam(required = false) Double oldBalance,
-            @RequestParam(required = false, defaultValue = "0") Double depositAmount) throws IOException {
-
-        ZoneId INDIA_ZONE = ZoneId.of("Asia/Kolkata");
-        boolean isAllClient = (clientId == null);
-        String clientName;
-        List<SaleEntry> sales = new ArrayList<>();
-
-        // Convert provided dates to India time
-        if (from != null) {
-            from = ZonedDateTime.of(from, ZoneId.systemDefault())
-                    .withZoneSameInstant(INDIA_ZONE)
-                    .toLocalDateTime();
-        }
-        if (to != null) {
-            to = ZonedDateTime.of(to, ZoneId.systemDefault())
-                    .withZoneSameInstant(INDIA_ZONE)
-                    .toLocalDateTime();
-        }
-        if (depositDatetime != null) {
-            depositDatetime = ZonedDateTime.of(depositDatetime, ZoneId.systemDefault())
-                    .withZoneSameInstant(INDIA_ZONE)
-                    .toLocalDateTime();
+            @RequestParam(required = false, defaultValue = "0") Double depositAmount,
+            WebRequest webRequest) throws IOException {
+
+        LocalDate fromLocalDate = reportFrom(from, to, days);
+        LocalDate toLocalDate = reportTo(from, to);
+        LocalDateTime depositAt = toIndiaTime(depositDatetime);
+
+        String clientName = salesReportService.clientName(clientId);
+
+        // Unchanged data and parameters give the same ETag; the browser's copy is still good
+        String etag = pdfCacheService.etag(clientId, clientName, fromLocalDate, toLocalDate,
+                depositAmount, depositAt, oldBalance);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
         }
 
-        // If no dates provided, use current India time
-        if (to == null && from == null) {
-            LocalDate today = LocalDate.now(INDIA_ZONE);
-            to = today.atTime(LocalTime.MAX); // today end of day
-            from = today.minusDays(days).atStartOfDay(); // days ago start of day
+        StreamingResponseBody body;
+        Optional<Path> cached = pdfCacheService.find(etag);
+        if (cached.isPresent()) {
+            body = out -> Files.copy(cached.get(), out);
+        } else {
+            // Only a report that is actually rendered needs its opening balance
+            Double openingBalance = oldBalance != null
+                    ? oldBalance
+                    : salesReportService.openingBalance(clientId, fromLocalDate);
+            // Rows are read from the database and rendered into the response (and the cache) as they arrive
+            body = out -> pdfCacheService.writeThrough(etag, out, target -> salesReportService.writeReport(target,
+                    clientId, clientName, fromLocalDate, toLocalDate,
+                    depositAmount, depositAt, openingBalance));
         }
 
-        LocalDate fromLocalDate = from.toLocalDate();
-        LocalDate toLocalDate = to.toLocalDate();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setETag("\"" + etag + "\"");
+        headers.setCacheControl(CacheControl.noCache().cachePrivate());
+        headers.setContentDisposition(ContentDisposition.builder("inline")
+                .filename("sales_report_" + clientName + ".pdf")
+                .build());
 
-        if (!isAllClient) {
-            Client client = clientService.getClientById(clientId);
-            clientName = client.getName();
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
 
-            if (oldBalance == null) {
-                oldBalance = saleEntryRepository.getOldBalanceOfClient(clientId, fromLocalDate);
-            }
+    // Every active client's statement for the period as one ZIP, streamed as each PDF finishes
+    @GetMapping("/statements")
+    public ResponseEntity<StreamingResponseBody> generateStatementsZip(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime to,
+            @RequestParam(required = false, defaultValue = "0") Integer days) {
 
-            sales = saleEntryRepository.findByClientIdAndSaleDateBetweenOrderBySaleDateTimeDescCustom(
-                    clientId, fromLocalDate, toLocalDate);
+        LocalDate fromLocalDate = reportFrom(from, to, days);
+        LocalDate toLocalDate = reportTo(from, to);
 
-        } else {
-            clientName = "All_Clients";
+        StreamingResponseBody body = out -> statementBatchService.writeStatementsZip(out, fromLocalDate,
+                toLocalDate);
 
-            if (oldBalance == null) {
-                oldBalance = saleEntryRepository.getOldBalance(fromLocalDate);
-            }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.setContentDisposition(ContentDisposition.builder("attachment")
+                .filename("statements_" + fromLocalDate + "_" + toLocalDate + ".zip")
+                .build());
 
-            sales = saleEntryRepository.findBySaleDateBetweenOrderBySaleDateTimeDescCustom(
-                    fromLocalDate, toLocalDate);
-        }
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    // Same parameters as /sales; the report is rendered in the background
+    @PostMapping("/jobs")
+    public ResponseEntity<PdfJobStatus> enqueueSalesPdf(
+            @RequestParam(required = false) Long clientId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime to,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime depositDatetime,
+            @RequestParam(required = false, defaultValue = "0") Integer days,
+            @RequestParam(required = false) Double oldBalance,
+            @RequestParam(required = false, defaultValue = "0") Double depositAmount) {
 
-        ByteArrayInputStream bis = pdfService.generateSalesPdf(
-                clientName, sales, fromLocalDate, toLocalDate, isAllClient,
-                depositAmount, depositDatetime, oldBalance);
+        // Fail fast on an unknown client instead of in the worker
+        salesReportService.clientName(clientId);
 
-        byte[] pdfBytes = bis.readAllBytes();
+        PdfJobStatus job = pdfJobService.enqueue(clientId, reportFrom(from, to, days), reportTo(from, to),
+                depositAmount, toIndiaTime(depositDatetime), oldBalance);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<PdfJobStatus> getJobStatus(@PathVariable Long id) {
+        return ResponseEntity.ok(pdfJobService.getStatus(id));
+    }
+
+    @GetMapping("/jobs/{id}/file")
+    public ResponseEntity<Resource> downloadJob(@PathVariable Long id) {
+        PdfLog job = pdfJobService.getJob(id);
+        if (!PdfLog.DONE.equals(job.getStatus())) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+
+        Path file = pdfJobService.fileOf(job);
+        if (file == null || !Files.isReadable(file)) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDisposition(ContentDisposition.builder("inline")
-                .filename("sales_report_" + clientName + ".pdf")
+        headers.setContentDisposition(ContentDisposition.builder("attachment")
+                .filename(job.getFileName())
                 .build());
 
-        return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
+        return new ResponseEntity<>(new FileSystemResource(file), headers, HttpStatus.OK);
+    }
+
+    // Convert provided dates to India time
+    private static LocalDateTime toIndiaTime(LocalDateTime time) {
+        if (time == null) {
+            return null;
+        }
+        return ZonedDateTime.of(time, ZoneId.systemDefault())
+                .withZoneSameInstant(INDIA_ZONE)
+                .toLocalDateTime();
+    }
+
+    // If no dates provided, the report covers the last 'days' days up to today in India
+    private static LocalDate reportFrom(LocalDateTime from, LocalDateTime to, Integer days) {
+        if (to == null && from == null) {
+            return LocalDate.now(INDIA_ZONE).minusDays(days);
+        }
+        return toIndiaTime(from).toLocalDate();
+    }
+
+    private static LocalDate reportTo(LocalDateTime from, LocalDateTime to) {
+        if (to == null && from == null) {
+            return LocalDate.now(INDIA_ZONE);
+        }
+        return toIndiaTime(to).toLocalDate();
     }
 
 }
@@ -1,13 +1,15 @@
 package com.example.wholesalesalesbackend.controllers;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.time.YearMonth;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -16,14 +18,24 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.wholesalesalesbackend.dto.BulkOperationResult;
+import com.example.wholesalesalesbackend.dto.BulkSaleEntryResult;
+import com.example.wholesalesalesbackend.dto.BulkSaleUpdateRequest;
 import com.example.wholesalesalesbackend.dto.ProfitAndSale;
+import com.example.wholesalesalesbackend.dto.RollupRebuildResult;
 import com.example.wholesalesalesbackend.dto.SaleAttributeUpdateDTO;
 import com.example.wholesalesalesbackend.dto.SaleEntryDTO;
+import com.example.wholesalesalesbackend.dto.SaleEntryPage;
 import com.example.wholesalesalesbackend.dto.SaleEntryRequestDTO;
+import com.example.wholesalesalesbackend.dto.SaleFilter;
 import com.example.wholesalesalesbackend.dto.SaleUpdateRequest;
+import com.example.wholesalesalesbackend.exception.BadRequestException;
 import com.example.wholesalesalesbackend.model.SaleEntry;
 import com.example.wholesalesalesbackend.service.SaleEntryService;
+import com.example.wholesalesalesbackend.service.SalePartitionService;
+import com.example.wholesalesalesbackend.service.SaleRollupService;
 
 import jakarta.validation.Valid;
 
@@ -34,6 +46,12 @@ public class SaleEntryController {
     @Autowired(required = false)
     private SaleEntryService saleEntryService;
 
+    @Autowired(required = false)
+    private SaleRollupService saleRollupService;
+
+    @Autowired
+    private SalePartitionService salePartitionService;
+
     @PostMapping("/sale-entry/add")
     public ResponseEntity<String> addSaleEntry(@RequestBody SaleEntryRequestDTO requestDTO) {
         SaleEntry savedEntry = saleEntryService.addSaleEntry(requestDTO);
@@ -42,29 +60,34 @@ public class SaleEntryController {
 
 
 
+    @PostMapping("/sale-entry/bulk")
+    public ResponseEntity<List<BulkSaleEntryResult>> addSaleEntries(@RequestBody List<SaleEntryRequestDTO> requestDTOs) {
+        return ResponseEntity.ok(saleEntryService.addSaleEntries(requestDTOs));
+    }
+
     @GetMapping("/all-sales/all")
     public ResponseEntity<List<SaleEntryDTO>> getAllSales() {
-        List<SaleEntry> entries = saleEntryService.getAllSales();
-
-        List<SaleEntryDTO> dtos = new ArrayList<>();
-        for (SaleEntry sale : entries) {
-
-            SaleEntryDTO dto = new SaleEntryDTO();
-            dto.setId(sale.getId());
-            dto.setProfit(sale.getProfit());
-            dto.setQuantity(sale.getQuantity());
-            dto.setClientName(sale.getClient().getName());
-            dto.setSaleDateTime(sale.getSaleDateTime());
-            dto.setTotalPrice(sale.getTotalPrice());
-            dto.setReturnFlag(sale.isReturnFlag());
-            dto.setNote(sale.getNote());
-            dto.setAccessoryName(sale.getAccessoryName());
+        return ResponseEntity.ok(saleEntryService.getAllSales());
+    }
 
-            dtos.add(dto);
+    @GetMapping("/all-sales/page")
+    public ResponseEntity<SaleEntryPage> getAllSalesPage(
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(saleEntryService.getSalesPage(null, null, null, null, null, cursor, size));
+    }
 
-        }
+    // Newline-delimited JSON, written while rows are read from the database
+    @GetMapping(value = "/all-sales/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportSales(
+            @RequestParam(required = false) Long clientId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime to) {
 
-        return ResponseEntity.ok(dtos);
+        StreamingResponseBody body = out -> saleEntryService.exportSales(clientId, from, to, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/by-date-range")
@@ -79,6 +102,13 @@ public class SaleEntryController {
         return ResponseEntity.ok(saleEntryService.getSalesEntryDTOByClient(clientId));
     }
 
+    @GetMapping("/by-client/{clientId}/page")
+    public ResponseEntity<SaleEntryPage> getSalesByClientPage(@PathVariable Long clientId,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(saleEntryService.getSalesPage(clientId, null, null, null, null, cursor, size));
+    }
+
     @PutMapping("/by-client/{clientId}")
     public ResponseEntity<String> updateSalesByClient(
             @PathVariable Long clientId, @RequestParam(value = "saleEntryId", required = true) Long saleEntryId,
@@ -91,12 +121,27 @@ public class SaleEntryController {
     public ResponseEntity<List<SaleEntryDTO>> getSalesByClientAndDateRange(
             @RequestParam(required = false) Long clientId,
             @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime from,
-            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime to) {
-        
-        List<SaleEntryDTO> sales = saleEntryService.getSalesEntryDTOByClientAndDateRange(clientId, from, to);
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime to,
+            @RequestParam(required = false) Boolean returnFlag,
+            @RequestParam(required = false) String accessory) {
+
+        List<SaleEntryDTO> sales = saleEntryService.getSalesEntryDTOByClientAndDateRange(clientId, from, to,
+                returnFlag, accessory);
         return ResponseEntity.ok(sales);
     }
 
+    @GetMapping("/by-client-and-date-range/page")
+    public ResponseEntity<SaleEntryPage> getSalesByClientAndDateRangePage(
+            @RequestParam(required = false) Long clientId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime to,
+            @RequestParam(required = false) Boolean returnFlag,
+            @RequestParam(required = false) String accessory,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(saleEntryService.getSalesPage(clientId, from, to, returnFlag, accessory, cursor, size));
+    }
+
     @PutMapping("/sale-entry/few-attributes")
     public ResponseEntity<String> updateProfit(@RequestBody SaleAttributeUpdateDTO dto) {
         SaleEntry updated = saleEntryService.updateProfit(dto);
@@ -116,6 +161,17 @@ public class SaleEntryController {
         return ResponseEntity.ok(output);
     }
 
+    // One UPDATE for every sale matching the filter (ids and / or clientId, from, to)
+    @PutMapping("/bulk/edit")
+    public ResponseEntity<BulkOperationResult> bulkUpdate(@RequestBody BulkSaleUpdateRequest request) {
+        return ResponseEntity.ok(saleEntryService.bulkUpdate(request));
+    }
+
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkOperationResult> bulkDelete(@RequestBody SaleFilter filter) {
+        return ResponseEntity.ok(saleEntryService.bulkDelete(filter));
+    }
+
     @GetMapping("/profit/by-date-range")
     public ResponseEntity<ProfitAndSale> getProfitByDateRange(
             @RequestParam (required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime from,
@@ -126,4 +182,23 @@ public class SaleEntryController {
         return ResponseEntity.ok(saleEntryService.getTotalProfitByDateRange(from, to, days ,clientId));
     }
 
+    // Recomputes the daily sale / profit rollup from sale_entry and reports how many days had drifted
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<RollupRebuildResult> rebuildRollup() {
+        return ResponseEntity.ok(saleRollupService.rebuild());
+    }
+
+    // Detaches a past month (yyyy-MM) of sale_entry for archival and names the table now holding it
+    @PostMapping("/partitions/detach")
+    public ResponseEntity<String> detachPartition(@RequestParam YearMonth month) {
+        String table = salePartitionService.detachMonth(month);
+        return ResponseEntity.ok("Detached " + month + " into table " + table);
+    }
+
+    // E.g. a cursor that did not come from a previous page (see SaleCursor.decode)
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<String> badRequest(BadRequestException e) {
+        return ResponseEntity.status(400).body(e.getMessage());
+    }
+
 }
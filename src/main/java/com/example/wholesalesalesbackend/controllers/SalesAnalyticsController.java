@@ -0,0 +1,57 @@
+package com.example.wholesalesalesbackend.controllers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.wholesalesalesbackend.dto.SalesSeriesBucket;
+import com.example.wholesalesalesbackend.dto.TopAccessoryEntry;
+import com.example.wholesalesalesbackend.dto.TopClientEntry;
+import com.example.wholesalesalesbackend.service.SalesAnalyticsService;
+
+@RestController
+@RequestMapping("/api/sales/analytics")
+public class SalesAnalyticsController {
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    // All chart buckets in one call; from / to are IST days, inclusive
+    @GetMapping("/series")
+    public ResponseEntity<List<SalesSeriesBucket>> getSeries(
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to,
+            @RequestParam(required = false) Long clientId) {
+
+        return ResponseEntity.ok(salesAnalyticsService.getSeries(granularity, from, to, clientId));
+    }
+
+    @GetMapping("/top-clients")
+    public ResponseEntity<List<TopClientEntry>> getTopClients(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to,
+            @RequestParam(defaultValue = "revenue") String by,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        return ResponseEntity.ok(salesAnalyticsService.getTopClients(from, to, by, limit));
+    }
+
+    @GetMapping("/top-accessories")
+    public ResponseEntity<List<TopAccessoryEntry>> getTopAccessories(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to,
+            @RequestParam(required = false) Long clientId,
+            @RequestParam(defaultValue = "quantity") String by,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        return ResponseEntity.ok(salesAnalyticsService.getTopAccessories(from, to, clientId, by, limit));
+    }
+}
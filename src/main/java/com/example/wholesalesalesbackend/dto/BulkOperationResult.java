@@ -0,0 +1,13 @@
+package com.example.wholesalesalesbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOperationResult {
+
+    private int affected;
+}
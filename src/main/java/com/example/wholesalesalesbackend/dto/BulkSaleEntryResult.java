@@ -0,0 +1,21 @@
+package com.example.wholesalesalesbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkSaleEntryResult {
+
+    // position of the item in the request array
+    private int index;
+
+    private Long id;
+
+    // CREATED or FAILED
+    private String status;
+
+    private String message;
+}
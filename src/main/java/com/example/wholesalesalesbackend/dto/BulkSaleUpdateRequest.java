@@ -0,0 +1,25 @@
+package com.example.wholesalesalesbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * New values for every sale matched by filter. Null fields are left unchanged.
+ * Prices and profits take the sign of each row's returnFlag, as in addSaleEntry.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkSaleUpdateRequest {
+
+    private SaleFilter filter;
+
+    private Double totalPrice;
+
+    private Double profit;
+
+    private String accessoryName;
+
+    private String note;
+}
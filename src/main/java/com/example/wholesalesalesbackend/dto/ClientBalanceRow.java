@@ -0,0 +1,19 @@
+package com.example.wholesalesalesbackend.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientBalanceRow {
+    private Long clientId;
+    private String clientName;
+    private Double balance;
+    // IST day; null when the client has no entries
+    private LocalDate lastSaleDay;
+    private Long entryCount;
+}
@@ -0,0 +1,22 @@
+package com.example.wholesalesalesbackend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientBalanceSummary {
+    // When the balances were computed (IST), and how long ago that was
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime refreshedAt;
+    private Long staleSeconds;
+
+    private List<ClientBalanceRow> clients;
+}
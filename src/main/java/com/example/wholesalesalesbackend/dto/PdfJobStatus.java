@@ -0,0 +1,26 @@
+package com.example.wholesalesalesbackend.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PdfJobStatus {
+
+    private Long id;
+
+    // PENDING, RUNNING, DONE or FAILED
+    private String status;
+
+    private String fileName;
+
+    private LocalDateTime requestedAt;
+
+    private LocalDateTime generatedAt;
+
+    private String error;
+}
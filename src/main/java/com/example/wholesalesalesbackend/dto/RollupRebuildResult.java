@@ -0,0 +1,16 @@
+package com.example.wholesalesalesbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupRebuildResult {
+
+    // Daily and per-product rollup rows that disagreed with sale_entry before the rebuild
+    private long mismatchedDays;
+
+    private long rollupRows;
+}
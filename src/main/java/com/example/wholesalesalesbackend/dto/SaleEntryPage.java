@@ -0,0 +1,18 @@
+package com.example.wholesalesalesbackend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleEntryPage {
+
+    private List<SaleEntryDTO> items;
+
+    // opaque cursor for the next page, null when this is the last page
+    private String next;
+}
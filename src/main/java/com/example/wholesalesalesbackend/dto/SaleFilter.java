@@ -0,0 +1,42 @@
+package com.example.wholesalesalesbackend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Selects sale entries for searches and set-based operations. Every
+ * non-null field narrows the selection.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleFilter {
+
+    private List<Long> ids;
+
+    private Long clientId;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime from;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime to;
+
+    private Boolean returnFlag;
+
+    // Case-insensitive substring of the catalog product name (no ADD -> / RETURN -> prefix)
+    private String accessory;
+
+    public boolean isEmpty() {
+        return (ids == null || ids.isEmpty()) && clientId == null && from == null && to == null
+                && returnFlag == null && (accessory == null || accessory.isBlank());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.wholesalesalesbackend.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The columns a sales PDF prints for one sale, with the client name already
+ * joined in.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleReportRow {
+
+    private LocalDateTime saleDateTime;
+
+    private String accessoryName;
+
+    // Paise, summed exactly by PdfService
+    private long totalPricePaise;
+
+    private boolean returnFlag;
+
+    private String clientName;
+}
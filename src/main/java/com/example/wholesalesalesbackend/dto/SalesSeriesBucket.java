@@ -0,0 +1,27 @@
+package com.example.wholesalesalesbackend.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesSeriesBucket {
+    // First IST day of the day / week (Monday) / month, or the requested 'from' for a partial first bucket
+    private LocalDate bucket;
+
+    private Double saleTotal;
+    private Double saleProfit;
+    private Long saleCount;
+
+    // Return entries, signed as stored (normally negative)
+    private Double returnTotal;
+    private Double returnProfit;
+    private Long returnCount;
+
+    private Double netTotal;
+    private Double netProfit;
+}
@@ -0,0 +1,18 @@
+package com.example.wholesalesalesbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopAccessoryEntry {
+    private Integer accessoryId;
+    // Catalog name, without the ADD -> / RETURN -> prefix
+    private String accessoryName;
+    // Net of returns
+    private Long quantity;
+    private Double revenue;
+    private Double profit;
+}
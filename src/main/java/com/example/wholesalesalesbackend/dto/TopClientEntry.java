@@ -0,0 +1,17 @@
+package com.example.wholesalesalesbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopClientEntry {
+    private Long clientId;
+    private String clientName;
+    // Net of returns
+    private Double revenue;
+    private Double profit;
+    private Long entryCount;
+}
@@ -0,0 +1,13 @@
+package com.example.wholesalesalesbackend.exception;
+
+/**
+ * A request the caller has to correct. The message is sent back as the body of
+ * a 400 response, so it must not carry internal detail.
+ */
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.example.wholesalesalesbackend.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Catalog entry for one product name. Rows are only ever added (see
+ * AccessoryCache), so an id always maps to the same name.
+ */
+@Entity
+@Table(name = "accessory")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class Accessory {
+
+    public static final String ADD_PREFIX = "ADD -> ";
+    public static final String RETURN_PREFIX = "RETURN -> ";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    // Without the ADD -> / RETURN -> prefix
+    @Column(nullable = false, unique = true)
+    private String name;
+
+    // The text the API has always shown for an entry
+    public static String displayName(String name, boolean returnFlag) {
+        return (returnFlag ? RETURN_PREFIX : ADD_PREFIX) + name;
+    }
+
+}
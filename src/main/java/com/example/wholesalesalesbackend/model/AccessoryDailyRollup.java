@@ -0,0 +1,52 @@
+package com.example.wholesalesalesbackend.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Net quantity, revenue and profit of one product for one client and IST day.
+ * Rows are written only through the native statements in AccessoryDailyRollupRepository.
+ */
+@Entity
+@Table(name = "accessory_daily_rollup")
+@IdClass(AccessoryDailyRollupId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccessoryDailyRollup {
+
+    @Id
+    @Column(name = "client_id")
+    private Long clientId;
+
+    @Id
+    @Column(name = "sale_day")
+    private LocalDate saleDay;
+
+    @Id
+    @Column(name = "accessory_id")
+    private Integer accessoryId;
+
+    @Column(name = "quantity", nullable = false)
+    private Long quantity;
+
+    // Amounts in paise (see Paise)
+    @Column(name = "revenue", nullable = false)
+    private Long revenue;
+
+    @Column(name = "profit", nullable = false)
+    private Long profit;
+
+    @Column(name = "entry_count", nullable = false)
+    private Long entryCount;
+}
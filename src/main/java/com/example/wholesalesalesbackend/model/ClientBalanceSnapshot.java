@@ -0,0 +1,43 @@
+package com.example.wholesalesalesbackend.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A client's running balance at the end of snapshotDay, so opening balances
+ * do not have to sum the client's whole history.
+ */
+@Entity
+@Table(name = "client_balance_snapshot")
+@IdClass(ClientBalanceSnapshotId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientBalanceSnapshot {
+
+    @Id
+    @Column(name = "client_id")
+    private Long clientId;
+
+    @Id
+    @Column(name = "snapshot_day")
+    private LocalDate snapshotDay;
+
+    // Paise (see Paise)
+    @Column(name = "closing_balance", nullable = false)
+    private Long closingBalance;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,32 @@
+package com.example.wholesalesalesbackend.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Amounts are stored and summed as whole paise (bigint, see
+ * V13__amounts_in_paise.sql) so totals are exact; the API and the PDFs still
+ * speak rupees.
+ */
+public final class Paise {
+
+    private Paise() {
+    }
+
+    // Nearest paisa, halves away from zero as the migration rounds; null counts as zero
+    public static long of(Double rupees) {
+        if (rupees == null) {
+            return 0L;
+        }
+        return BigDecimal.valueOf(rupees).movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public static Double toRupees(Long paise) {
+        return paise != null ? paise / 100.0 : null;
+    }
+
+    public static double toRupees(long paise) {
+        return paise / 100.0;
+    }
+
+}
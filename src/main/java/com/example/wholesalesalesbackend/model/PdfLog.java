@@ -3,6 +3,7 @@ package com.example.wholesalesalesbackend.model;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
@@ -13,6 +14,12 @@ import java.time.LocalDateTime;
 @Builder
 public class PdfLog {
 
+    // Job lifecycle: PENDING -> RUNNING -> DONE or FAILED
+    public static final String PENDING = "PENDING";
+    public static final String RUNNING = "RUNNING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -24,5 +31,27 @@ public class PdfLog {
     private String sentToClient; // Optional: client name or WhatsApp number
 
     private String filePath; // Relative or full path
-}
 
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    // Report parameters; clientId null means all clients
+    private Long clientId;
+
+    private LocalDate fromDate;
+
+    private LocalDate toDate;
+
+    private Double depositAmount;
+
+    private LocalDateTime depositDateTime;
+
+    private Double oldBalance;
+
+    private LocalDateTime requestedAt;
+
+    private LocalDateTime claimedAt;
+
+    @Column(length = 1000)
+    private String error;
+}
@@ -0,0 +1,58 @@
+package com.example.wholesalesalesbackend.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Sale and profit totals of one client for one IST day.
+ * Rows are written only through the native upserts in SaleDailyRollupRepository.
+ */
+@Entity
+@Table(name = "sale_daily_rollup")
+@IdClass(SaleDailyRollupId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleDailyRollup {
+
+    @Id
+    @Column(name = "client_id")
+    private Long clientId;
+
+    @Id
+    @Column(name = "sale_day")
+    private LocalDate saleDay;
+
+    // Amounts in paise (see Paise)
+    @Column(name = "sale_total", nullable = false)
+    private Long saleTotal;
+
+    @Column(name = "profit_total", nullable = false)
+    private Long profitTotal;
+
+    @Column(name = "entry_count", nullable = false)
+    private Long entryCount;
+
+    @Column(name = "return_total", nullable = false)
+    private Long returnTotal;
+
+    @Column(name = "return_profit", nullable = false)
+    private Long returnProfit;
+
+    @Column(name = "return_count", nullable = false)
+    private Long returnCount;
+
+    // Fresh value from sale_daily_rollup_version_seq on every write
+    @Column(name = "version", insertable = false, updatable = false)
+    private Long version;
+}
@@ -0,0 +1,18 @@
+package com.example.wholesalesalesbackend.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleDailyRollupId implements Serializable {
+
+    private Long clientId;
+
+    private LocalDate saleDay;
+}
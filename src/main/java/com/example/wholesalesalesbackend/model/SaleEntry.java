@@ -1,9 +1,12 @@
 package com.example.wholesalesalesbackend.model;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -11,8 +14,11 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -20,6 +26,13 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@Table(name = "sale_entry", indexes = {
+        // backs the keyset (cursor) pagination order: sale_date_time DESC, id DESC
+        @Index(name = "idx_sale_entry_sale_date_time_id", columnList = "sale_date_time DESC, id DESC"),
+        @Index(name = "idx_sale_entry_client_id_sale_day", columnList = "client_id, sale_day"),
+        @Index(name = "idx_sale_entry_sale_day", columnList = "sale_day"),
+        @Index(name = "idx_sale_entry_accessory_id_sale_day", columnList = "accessory_id, sale_day")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -27,24 +40,40 @@ import lombok.Setter;
 @Builder
 public class SaleEntry {
 
+    // Pooled sequence (see V5__sale_entry_pooled_sequence.sql) so inserts can be JDBC batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sale_entry_seq")
+    @SequenceGenerator(name = "sale_entry_seq", sequenceName = "sale_entry_seq", allocationSize = 50)
     private Long id;
 
-    private String accessoryName;
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "accessory_id", nullable = false)
+    @JsonIgnore
+    private Accessory accessory;
 
     private Integer quantity;
 
-    private Double totalPrice;
+    // Paise (see Paise); serialized in rupees as totalPrice
+    @Column(name = "total_price", nullable = false)
+    @JsonIgnore
+    private long totalPricePaise;
 
     @Column(name = "return_flag")
     private boolean returnFlag;
 
+    // Partition key (monthly, see V12__sale_entry_partitioning.sql), hence required
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @Column(name = "sale_date_time", nullable = false)
     private LocalDateTime saleDateTime;
 
-    @Column(name = "profit")
-    private Double profit;
+    // IST day of saleDateTime, generated by the database (see V2__sale_entry_sale_day.sql)
+    @Column(name = "sale_day", insertable = false, updatable = false)
+    private LocalDate saleDay;
+
+    // Paise, serialized in rupees as profit
+    @Column(name = "profit", nullable = false)
+    @JsonIgnore
+    private long profitPaise;
 
     @Column(name = "note")
     private String note;
@@ -54,4 +83,20 @@ public class SaleEntry {
     @JsonBackReference
     private Client client;
 
+    @JsonProperty("totalPrice")
+    public Double getTotalPrice() {
+        return Paise.toRupees(totalPricePaise);
+    }
+
+    @JsonProperty("profit")
+    public Double getProfit() {
+        return Paise.toRupees(profitPaise);
+    }
+
+    // "ADD -> name" / "RETURN -> name", as entries were serialized before the catalog
+    @JsonProperty("accessoryName")
+    public String getAccessoryName() {
+        return accessory != null ? Accessory.displayName(accessory.getName(), returnFlag) : null;
+    }
+
 }
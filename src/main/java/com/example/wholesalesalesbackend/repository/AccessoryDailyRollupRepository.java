@@ -0,0 +1,95 @@
+package com.example.wholesalesalesbackend.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.wholesalesalesbackend.model.AccessoryDailyRollup;
+import com.example.wholesalesalesbackend.model.AccessoryDailyRollupId;
+
+public interface AccessoryDailyRollupRepository extends JpaRepository<AccessoryDailyRollup, AccessoryDailyRollupId> {
+
+       @Modifying
+       @Query(value = "INSERT INTO accessory_daily_rollup AS r (client_id, sale_day, accessory_id, quantity, revenue, profit, entry_count) " +
+                     "VALUES (:clientId, :saleDay, :accessoryId, :quantity, :revenue, :profit, :count) " +
+                     "ON CONFLICT (client_id, sale_day, accessory_id) DO UPDATE SET " +
+                     "quantity = r.quantity + EXCLUDED.quantity, " +
+                     "revenue = r.revenue + EXCLUDED.revenue, " +
+                     "profit = r.profit + EXCLUDED.profit, " +
+                     "entry_count = r.entry_count + EXCLUDED.entry_count", nativeQuery = true)
+       void applyDelta(@Param("clientId") Long clientId,
+                     @Param("saleDay") LocalDate saleDay,
+                     @Param("accessoryId") Integer accessoryId,
+                     @Param("quantity") long quantity,
+                     @Param("revenue") long revenue,
+                     @Param("profit") long profit,
+                     @Param("count") long count);
+
+       // refresh = deleteDay + insertDay, since a set-based edit can move entries to another product
+       @Modifying
+       @Query(value = "DELETE FROM accessory_daily_rollup WHERE client_id = :clientId AND sale_day = :saleDay", nativeQuery = true)
+       void deleteDay(@Param("clientId") Long clientId, @Param("saleDay") LocalDate saleDay);
+
+       @Modifying
+       @Query(value = "INSERT INTO accessory_daily_rollup (client_id, sale_day, accessory_id, quantity, revenue, profit, entry_count) " +
+                     "SELECT client_id, sale_day, accessory_id, " +
+                     "COALESCE(SUM(CASE WHEN return_flag THEN -quantity ELSE quantity END), 0), " +
+                     "COALESCE(SUM(total_price), 0), COALESCE(SUM(profit), 0), COUNT(*) " +
+                     "FROM sale_entry WHERE client_id = :clientId AND sale_day = :saleDay " +
+                     "AND sale_date_time >= CAST(:saleDay AS timestamp) " +
+                     "AND sale_date_time < CAST(:saleDay AS timestamp) + interval '1 day' " +
+                     "GROUP BY client_id, sale_day, accessory_id", nativeQuery = true)
+       void insertDay(@Param("clientId") Long clientId, @Param("saleDay") LocalDate saleDay);
+
+       @Query(value = "SELECT COUNT(*) FROM accessory_daily_rollup r " +
+                     "FULL OUTER JOIN (SELECT client_id, sale_day, accessory_id, COUNT(*) AS cnt, "
+                     +
+                     "      SUM(CASE WHEN return_flag THEN -quantity ELSE quantity END) AS qty, SUM(total_price) AS revenue, " +
+                     "      SUM(profit) AS profit " +
+                     "      FROM sale_entry WHERE client_id IS NOT NULL AND sale_day IS NOT NULL " +
+                     "      GROUP BY client_id, sale_day, accessory_id) t " +
+                     "ON r.client_id = t.client_id AND r.sale_day = t.sale_day AND r.accessory_id = t.accessory_id " +
+                     "WHERE (COALESCE(r.entry_count, 0) <> COALESCE(t.cnt, 0) " +
+                     "OR COALESCE(r.quantity, 0) <> COALESCE(t.qty, 0) " +
+                     "OR COALESCE(r.revenue, 0) <> COALESCE(t.revenue, 0) " +
+                     "OR COALESCE(r.profit, 0) <> COALESCE(t.profit, 0)) " +
+                     "AND NOT EXISTS (SELECT 1 FROM sale_entry_archive a " +
+                     "      WHERE COALESCE(r.sale_day, t.sale_day) >= a.archived_month " +
+                     "      AND COALESCE(r.sale_day, t.sale_day) < CAST(a.archived_month + interval '1 month' AS date))",
+                     nativeQuery = true)
+       long countMismatches();
+
+       // As in SaleDailyRollupRepository, detached months are kept
+       @Modifying
+       @Query(value = "DELETE FROM accessory_daily_rollup r WHERE NOT EXISTS (" +
+                     "      SELECT 1 FROM sale_entry_archive a WHERE r.sale_day >= a.archived_month " +
+                     "      AND r.sale_day < CAST(a.archived_month + interval '1 month' AS date))", nativeQuery = true)
+       void deleteUnarchivedRows();
+
+       @Modifying
+       @Query(value = "INSERT INTO accessory_daily_rollup (client_id, sale_day, accessory_id, quantity, revenue, profit, entry_count) " +
+                     "SELECT client_id, sale_day, accessory_id, " +
+                     "COALESCE(SUM(CASE WHEN return_flag THEN -quantity ELSE quantity END), 0), " +
+                     "COALESCE(SUM(total_price), 0), COALESCE(SUM(profit), 0), COUNT(*) " +
+                     "FROM sale_entry WHERE client_id IS NOT NULL AND sale_day IS NOT NULL " +
+                     "GROUP BY client_id, sale_day, accessory_id", nativeQuery = true)
+       int insertFromSaleEntries();
+
+       @Query(value = "SELECT a.id AS accessoryId, a.name AS accessoryName, SUM(r.quantity) AS quantity, " +
+                     "SUM(r.revenue) AS revenue, SUM(r.profit) AS profit " +
+                     "FROM accessory_daily_rollup r JOIN accessory a ON a.id = r.accessory_id " +
+                     "WHERE r.sale_day BETWEEN :fromDay AND :toDay " +
+                     "AND (CAST(:clientId AS bigint) IS NULL OR r.client_id = :clientId) " +
+                     "GROUP BY a.id, a.name HAVING SUM(r.entry_count) > 0 " +
+                     "ORDER BY CASE WHEN :metric = 'revenue' THEN SUM(r.revenue) ELSE SUM(r.quantity) END DESC, a.name " +
+                     "LIMIT :limit", nativeQuery = true)
+       List<TopAccessoryProjection> findTopAccessories(@Param("fromDay") LocalDate fromDay,
+                     @Param("toDay") LocalDate toDay,
+                     @Param("clientId") Long clientId,
+                     @Param("metric") String metric,
+                     @Param("limit") int limit);
+}
@@ -0,0 +1,24 @@
+package com.example.wholesalesalesbackend.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.wholesalesalesbackend.model.Accessory;
+
+@Repository
+public interface AccessoryRepository extends JpaRepository<Accessory, Integer> {
+
+       Optional<Accessory> findByName(String name);
+
+       // The new id, or empty if the name is already there (read it back with findByName)
+       @Transactional
+       @Query(value = "INSERT INTO accessory (name) VALUES (:name) ON CONFLICT (name) DO NOTHING RETURNING id",
+                     nativeQuery = true)
+       Optional<Integer> insertIfAbsent(@Param("name") String name);
+
+}
@@ -0,0 +1,94 @@
+package com.example.wholesalesalesbackend.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.wholesalesalesbackend.model.ClientBalanceSnapshot;
+import com.example.wholesalesalesbackend.model.ClientBalanceSnapshotId;
+
+@Repository
+public interface ClientBalanceSnapshotRepository extends JpaRepository<ClientBalanceSnapshot, ClientBalanceSnapshotId> {
+
+       // First key of the two-int advisory lock that every per-client balance lock holds shared;
+       // (2, 0) is the sale_entry partition lock (V14__sale_entry_partition_lock.sql)
+       int ALL_CLIENTS_LOCK = 1;
+
+       /*
+        * Transaction-scoped advisory locks (see ClientBalanceService.lockClient). The
+        * bigint key space of the client lock does not overlap the two-int one.
+        */
+       @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock_shared(" + ALL_CLIENTS_LOCK + ", 0), " +
+                     "pg_advisory_xact_lock(:clientId)) locked", nativeQuery = true)
+       int lockClient(@Param("clientId") Long clientId);
+
+       @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(" + ALL_CLIENTS_LOCK + ", 0)) locked", nativeQuery = true)
+       int lockAllClients();
+
+       Optional<ClientBalanceSnapshot> findTopByClientIdAndSnapshotDayLessThanOrderBySnapshotDayDesc(Long clientId,
+                     LocalDate day);
+
+       @Modifying
+       @Query(value = "INSERT INTO client_balance_snapshot (client_id, snapshot_day, closing_balance) " +
+                     "VALUES (:clientId, :snapshotDay, :balance) " +
+                     "ON CONFLICT (client_id, snapshot_day) DO UPDATE SET " +
+                     "closing_balance = EXCLUDED.closing_balance, created_at = now()", nativeQuery = true)
+       void upsert(@Param("clientId") Long clientId,
+                     @Param("snapshotDay") LocalDate snapshotDay,
+                     @Param("balance") long balance);
+
+       // Month-end snapshot of every client, summed from the daily rollup
+       @Modifying
+       @Query(value = "INSERT INTO client_balance_snapshot (client_id, snapshot_day, closing_balance) " +
+                     "SELECT client_id, :snapshotDay, SUM(sale_total) FROM sale_daily_rollup " +
+                     "WHERE sale_day <= :snapshotDay GROUP BY client_id " +
+                     "ON CONFLICT (client_id, snapshot_day) DO UPDATE SET " +
+                     "closing_balance = EXCLUDED.closing_balance, created_at = now()", nativeQuery = true)
+       int snapshotAllClients(@Param("snapshotDay") LocalDate snapshotDay);
+
+       /*
+        * Every client with an opening balance or entries in [fromDay, toDay], in one
+        * statement: the latest snapshot before fromDay plus the rollup after it, the
+        * same arithmetic as ClientBalanceService.getOpeningBalance.
+        */
+       @Query(value = "SELECT c.id AS clientId, c.name AS clientName, " +
+                     "COALESCE(s.closing_balance, 0) + COALESCE((SELECT SUM(r.sale_total) FROM sale_daily_rollup r " +
+                     "      WHERE r.client_id = c.id AND r.sale_day < :fromDay " +
+                     "      AND r.sale_day > COALESCE(s.snapshot_day, DATE '1969-12-31')), 0) AS openingBalance, " +
+                     "COALESCE((SELECT SUM(r.entry_count) FROM sale_daily_rollup r " +
+                     "      WHERE r.client_id = c.id AND r.sale_day BETWEEN :fromDay AND :toDay), 0) AS entryCount " +
+                     "FROM clients c " +
+                     "LEFT JOIN LATERAL (SELECT snapshot_day, closing_balance FROM client_balance_snapshot " +
+                     "      WHERE client_id = c.id AND snapshot_day < :fromDay " +
+                     "      ORDER BY snapshot_day DESC LIMIT 1) s ON true " +
+                     "ORDER BY c.name", nativeQuery = true)
+       List<StatementClientProjection> findStatementClients(@Param("fromDay") LocalDate fromDay,
+                     @Param("toDay") LocalDate toDay);
+
+       @Modifying
+       @Query(value = "DELETE FROM client_balance_snapshot WHERE client_id = :clientId AND snapshot_day >= :fromDay", nativeQuery = true)
+       void deleteFrom(@Param("clientId") Long clientId, @Param("fromDay") LocalDate fromDay);
+
+       @Modifying
+       @Query(value = "DELETE FROM client_balance_snapshot", nativeQuery = true)
+       void deleteAllRows();
+
+       @Query(value = "SELECT client_id AS clientId, client_name AS clientName, balance, " +
+                     "last_sale_day AS lastSaleDay, entry_count AS entryCount, " +
+                     "CAST(refreshed_at AT TIME ZONE 'Asia/Kolkata' AS timestamp) AS refreshedAt, " +
+                     "CAST(EXTRACT(EPOCH FROM now() - refreshed_at) AS bigint) AS staleSeconds " +
+                     "FROM client_balance_summary ORDER BY client_name", nativeQuery = true)
+       List<ClientBalanceSummaryProjection> findBalanceSummary();
+
+       // CONCURRENTLY keeps the view readable while it is rebuilt
+       @Modifying
+       @Query(value = "REFRESH MATERIALIZED VIEW CONCURRENTLY client_balance_summary", nativeQuery = true)
+       void refreshBalanceSummary();
+
+}
@@ -0,0 +1,21 @@
+package com.example.wholesalesalesbackend.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public interface ClientBalanceSummaryProjection {
+    Long getClientId();
+
+    String getClientName();
+
+    Long getBalance();
+
+    LocalDate getLastSaleDay();
+
+    Long getEntryCount();
+
+    // IST
+    LocalDateTime getRefreshedAt();
+
+    Long getStaleSeconds();
+}
@@ -1,11 +1,55 @@
 package com.example.wholesalesalesbackend.repository;
 
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.wholesalesalesbackend.model.PdfLog;
 
 @Repository
 public interface PdfLogRepository extends JpaRepository<PdfLog, Long> {
+
+       // Oldest pending jobs, skipping rows another instance has already locked
+       @Query(value = "SELECT * FROM pdf_log WHERE status = 'PENDING' " +
+                     "ORDER BY requested_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+       List<PdfLog> lockPending(@Param("limit") int limit);
+
+       // Finished jobs requested before the cutoff, skipping rows another instance is sweeping
+       @Query(value = "SELECT * FROM pdf_log WHERE status IN ('DONE', 'FAILED') AND requested_at < :requestedBefore " +
+                     "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+       List<PdfLog> lockFinished(@Param("requestedBefore") LocalDateTime requestedBefore);
+
+       // Jobs whose worker died mid-render go back on the queue
+       @Modifying
+       @Query(value = "UPDATE pdf_log SET status = 'PENDING', claimed_at = NULL " +
+                     "WHERE status = 'RUNNING' AND claimed_at < :claimedBefore", nativeQuery = true)
+       int requeueStale(@Param("claimedBefore") LocalDateTime claimedBefore);
+
+       /*
+        * Finish a job only for the worker that still owns it: once the job has been
+        * re-queued and claimed again, claimed_at no longer matches and 0 is returned.
+        */
+       @Modifying
+       @Query(value = "UPDATE pdf_log SET status = 'DONE', file_name = :fileName, file_path = :filePath, " +
+                     "sent_to_client = :sentToClient, generated_at = :generatedAt, error = NULL " +
+                     "WHERE id = :id AND status = 'RUNNING' AND claimed_at = :claimedAt", nativeQuery = true)
+       int markDone(@Param("id") Long id,
+                     @Param("claimedAt") LocalDateTime claimedAt,
+                     @Param("fileName") String fileName,
+                     @Param("filePath") String filePath,
+                     @Param("sentToClient") String sentToClient,
+                     @Param("generatedAt") LocalDateTime generatedAt);
+
+       @Modifying
+       @Query(value = "UPDATE pdf_log SET status = 'FAILED', error = :error " +
+                     "WHERE id = :id AND status = 'RUNNING' AND claimed_at = :claimedAt", nativeQuery = true)
+       int markFailed(@Param("id") Long id,
+                     @Param("claimedAt") LocalDateTime claimedAt,
+                     @Param("error") String error);
 }
@@ -1,7 +1,8 @@
 package com.example.wholesalesalesbackend.repository;
 
+// Sums in paise (see Paise)
 public interface ProfitAndSaleProjection {
-    Double getSale();
+    Long getSale();
 
-    Double getProfit();
+    Long getProfit();
 }
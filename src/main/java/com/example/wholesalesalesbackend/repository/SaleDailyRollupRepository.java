@@ -0,0 +1,160 @@
+package com.example.wholesalesalesbackend.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.wholesalesalesbackend.model.SaleDailyRollup;
+import com.example.wholesalesalesbackend.model.SaleDailyRollupId;
+
+@Repository
+public interface SaleDailyRollupRepository extends JpaRepository<SaleDailyRollup, SaleDailyRollupId> {
+
+       @Modifying
+       @Query(value = "INSERT INTO sale_daily_rollup AS r (client_id, sale_day, sale_total, profit_total, entry_count, " +
+                     "return_total, return_profit, return_count) " +
+                     "VALUES (:clientId, :saleDay, :sale, :profit, :count, :returnSale, :returnProfit, :returnCount) " +
+                     "ON CONFLICT (client_id, sale_day) DO UPDATE SET " +
+                     "sale_total = r.sale_total + EXCLUDED.sale_total, " +
+                     "profit_total = r.profit_total + EXCLUDED.profit_total, " +
+                     "entry_count = r.entry_count + EXCLUDED.entry_count, " +
+                     "return_total = r.return_total + EXCLUDED.return_total, " +
+                     "return_profit = r.return_profit + EXCLUDED.return_profit, " +
+                     "return_count = r.return_count + EXCLUDED.return_count, " +
+                     "version = nextval('sale_daily_rollup_version_seq')", nativeQuery = true)
+       void applyDelta(@Param("clientId") Long clientId,
+                     @Param("saleDay") LocalDate saleDay,
+                     @Param("sale") long sale,
+                     @Param("profit") long profit,
+                     @Param("count") long count,
+                     @Param("returnSale") long returnSale,
+                     @Param("returnProfit") long returnProfit,
+                     @Param("returnCount") long returnCount);
+
+       // Recomputes one (client, day) row from sale_entry
+       @Modifying
+       @Query(value = "INSERT INTO sale_daily_rollup AS r (client_id, sale_day, sale_total, profit_total, entry_count, " +
+                     "return_total, return_profit, return_count) " +
+                     "SELECT :clientId, :saleDay, COALESCE(SUM(t.total_price), 0), COALESCE(SUM(t.profit), 0), COUNT(*), " +
+                     "COALESCE(SUM(t.total_price) FILTER (WHERE t.return_flag), 0), " +
+                     "COALESCE(SUM(t.profit) FILTER (WHERE t.return_flag), 0), " +
+                     "COUNT(*) FILTER (WHERE t.return_flag) " +
+                     "FROM sale_entry t WHERE t.client_id = :clientId AND t.sale_day = :saleDay " +
+                     "AND t.sale_date_time >= CAST(:saleDay AS timestamp) " +
+                     "AND t.sale_date_time < CAST(:saleDay AS timestamp) + interval '1 day' " +
+                     "ON CONFLICT (client_id, sale_day) DO UPDATE SET " +
+                     "sale_total = EXCLUDED.sale_total, " +
+                     "profit_total = EXCLUDED.profit_total, " +
+                     "entry_count = EXCLUDED.entry_count, " +
+                     "return_total = EXCLUDED.return_total, " +
+                     "return_profit = EXCLUDED.return_profit, " +
+                     "return_count = EXCLUDED.return_count, " +
+                     "version = nextval('sale_daily_rollup_version_seq')", nativeQuery = true)
+       void refresh(@Param("clientId") Long clientId, @Param("saleDay") LocalDate saleDay);
+
+       @Query(value = "SELECT COUNT(*) FROM sale_daily_rollup r " +
+                     "FULL OUTER JOIN (SELECT client_id, sale_day, SUM(total_price) AS sale, SUM(profit) AS profit, COUNT(*) AS cnt, "
+                     +
+                     "      COALESCE(SUM(total_price) FILTER (WHERE return_flag), 0) AS ret, " +
+                     "      COALESCE(SUM(profit) FILTER (WHERE return_flag), 0) AS ret_profit, " +
+                     "      COUNT(*) FILTER (WHERE return_flag) AS ret_cnt " +
+                     "      FROM sale_entry WHERE client_id IS NOT NULL AND sale_day IS NOT NULL " +
+                     "      GROUP BY client_id, sale_day) t " +
+                     "ON r.client_id = t.client_id AND r.sale_day = t.sale_day " +
+                     "WHERE (COALESCE(r.entry_count, 0) <> COALESCE(t.cnt, 0) " +
+                     "OR COALESCE(r.sale_total, 0) <> COALESCE(t.sale, 0) " +
+                     "OR COALESCE(r.profit_total, 0) <> COALESCE(t.profit, 0) " +
+                     "OR COALESCE(r.return_count, 0) <> COALESCE(t.ret_cnt, 0) " +
+                     "OR COALESCE(r.return_total, 0) <> COALESCE(t.ret, 0) " +
+                     "OR COALESCE(r.return_profit, 0) <> COALESCE(t.ret_profit, 0)) " +
+                     "AND NOT EXISTS (SELECT 1 FROM sale_entry_archive a " +
+                     "      WHERE COALESCE(r.sale_day, t.sale_day) >= a.archived_month " +
+                     "      AND COALESCE(r.sale_day, t.sale_day) < CAST(a.archived_month + interval '1 month' AS date))",
+                     nativeQuery = true)
+       long countMismatches();
+
+       // Rows of detached months (sale_entry_archive) are their only record and are kept
+       @Modifying
+       @Query(value = "DELETE FROM sale_daily_rollup r WHERE NOT EXISTS (" +
+                     "      SELECT 1 FROM sale_entry_archive a WHERE r.sale_day >= a.archived_month " +
+                     "      AND r.sale_day < CAST(a.archived_month + interval '1 month' AS date))", nativeQuery = true)
+       void deleteUnarchivedRows();
+
+       @Modifying
+       @Query(value = "INSERT INTO sale_daily_rollup (client_id, sale_day, sale_total, profit_total, entry_count, " +
+                     "return_total, return_profit, return_count) " +
+                     "SELECT client_id, sale_day, COALESCE(SUM(total_price), 0), COALESCE(SUM(profit), 0), COUNT(*), " +
+                     "COALESCE(SUM(total_price) FILTER (WHERE return_flag), 0), " +
+                     "COALESCE(SUM(profit) FILTER (WHERE return_flag), 0), " +
+                     "COUNT(*) FILTER (WHERE return_flag) " +
+                     "FROM sale_entry WHERE client_id IS NOT NULL AND sale_day IS NOT NULL " +
+                     "GROUP BY client_id, sale_day", nativeQuery = true)
+       int insertFromSaleEntries();
+
+       /*
+        * Changes whenever a rollup row in the range is written. A row's version only
+        * ever grows, so the sum moves even when a long transaction commits a value
+        * lower than the current maximum; the count covers rows removed by a rebuild.
+        */
+       @Query(value = "SELECT CONCAT(COUNT(*), '-', COALESCE(SUM(version), 0)) FROM sale_daily_rollup " +
+                     "WHERE sale_day BETWEEN :fromDay AND :toDay", nativeQuery = true)
+       String dataVersion(@Param("fromDay") LocalDate fromDay, @Param("toDay") LocalDate toDay);
+
+       @Query(value = "SELECT CONCAT(COUNT(*), '-', COALESCE(SUM(version), 0)) FROM sale_daily_rollup " +
+                     "WHERE client_id = :clientId AND sale_day BETWEEN :fromDay AND :toDay", nativeQuery = true)
+       String dataVersionByClient(@Param("fromDay") LocalDate fromDay,
+                     @Param("toDay") LocalDate toDay,
+                     @Param("clientId") Long clientId);
+
+       // The same over every day up to toDay, which also covers an opening balance before the range
+       @Query(value = "SELECT CONCAT(COUNT(*), '-', COALESCE(SUM(version), 0)) FROM sale_daily_rollup " +
+                     "WHERE sale_day <= :toDay", nativeQuery = true)
+       String dataVersionThrough(@Param("toDay") LocalDate toDay);
+
+       @Query(value = "SELECT CONCAT(COUNT(*), '-', COALESCE(SUM(version), 0)) FROM sale_daily_rollup " +
+                     "WHERE client_id = :clientId AND sale_day <= :toDay", nativeQuery = true)
+       String dataVersionThroughByClient(@Param("toDay") LocalDate toDay,
+                     @Param("clientId") Long clientId);
+
+       @Query(value = "SELECT SUM(sale_total) AS sale, SUM(profit_total) AS profit FROM sale_daily_rollup " +
+                     "WHERE sale_day BETWEEN :fromDay AND :toDay", nativeQuery = true)
+       ProfitAndSaleProjection sumBetweenDays(@Param("fromDay") LocalDate fromDay,
+                     @Param("toDay") LocalDate toDay);
+
+       @Query(value = "SELECT SUM(sale_total) AS sale, SUM(profit_total) AS profit FROM sale_daily_rollup " +
+                     "WHERE client_id = :clientId AND sale_day BETWEEN :fromDay AND :toDay", nativeQuery = true)
+       ProfitAndSaleProjection sumBetweenDaysByClient(@Param("fromDay") LocalDate fromDay,
+                     @Param("toDay") LocalDate toDay,
+                     @Param("clientId") Long clientId);
+
+       // One row per day / week / month bucket (Monday-based weeks); days are IST calendar days
+       @Query(value = "SELECT CAST(date_trunc(:granularity, CAST(sale_day AS timestamp)) AS date) AS bucket, " +
+                     "SUM(sale_total) AS netTotal, SUM(profit_total) AS netProfit, SUM(entry_count) AS entryCount, " +
+                     "SUM(return_total) AS returnTotal, SUM(return_profit) AS returnProfit, " +
+                     "SUM(return_count) AS returnCount " +
+                     "FROM sale_daily_rollup WHERE sale_day BETWEEN :fromDay AND :toDay " +
+                     "AND (CAST(:clientId AS bigint) IS NULL OR client_id = :clientId) " +
+                     "GROUP BY 1 ORDER BY 1", nativeQuery = true)
+       List<SalesSeriesProjection> findSeries(@Param("granularity") String granularity,
+                     @Param("fromDay") LocalDate fromDay,
+                     @Param("toDay") LocalDate toDay,
+                     @Param("clientId") Long clientId);
+
+       @Query(value = "SELECT r.client_id AS clientId, c.name AS clientName, SUM(r.sale_total) AS revenue, " +
+                     "SUM(r.profit_total) AS profit, SUM(r.entry_count) AS entryCount " +
+                     "FROM sale_daily_rollup r JOIN clients c ON c.id = r.client_id " +
+                     "WHERE r.sale_day BETWEEN :fromDay AND :toDay " +
+                     "GROUP BY r.client_id, c.name HAVING SUM(r.entry_count) > 0 " +
+                     "ORDER BY CASE WHEN :metric = 'profit' THEN SUM(r.profit_total) ELSE SUM(r.sale_total) END DESC, c.name " +
+                     "LIMIT :limit", nativeQuery = true)
+       List<TopClientProjection> findTopClients(@Param("fromDay") LocalDate fromDay,
+                     @Param("toDay") LocalDate toDay,
+                     @Param("metric") String metric,
+                     @Param("limit") int limit);
+
+}
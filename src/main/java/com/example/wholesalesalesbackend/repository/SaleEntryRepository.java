@@ -3,52 +3,60 @@ package com.example.wholesalesalesbackend.repository;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import com.example.wholesalesalesbackend.model.Client;
+import com.example.wholesalesalesbackend.dto.SaleReportRow;
 import com.example.wholesalesalesbackend.model.SaleEntry;
 
+import jakarta.persistence.QueryHint;
+
 import jakarta.transaction.Transactional;
 
 @Repository
-public interface SaleEntryRepository extends JpaRepository<SaleEntry, Long> {
-
-       // present
-       List<SaleEntry> findByClientOrderBySaleDateTimeDesc(Client client);
+public interface SaleEntryRepository extends JpaRepository<SaleEntry, Long>, SaleEntryRepositoryCustom {
 
-       // present
-       List<SaleEntry> findByClientAndSaleDateTimeBetweenOrderBySaleDateTimeDesc(Client client, LocalDateTime from,
-                     LocalDateTime to);
+       // Rows per JDBC round trip when streaming
+       String STREAM_FETCH_SIZE = "500";
 
-       List<SaleEntry> findByClientAndSaleDateTimeAfterOrderBySaleDateTimeDesc(Client client, LocalDateTime from);
+       // "ADD -> name" / "RETURN -> name" from the catalog name, for SaleEntry s JOIN s.accessory a
+       String DISPLAY_NAME = "CONCAT(CASE WHEN s.returnFlag = true THEN 'RETURN -> ' ELSE 'ADD -> ' END, a.name)";
 
-       List<SaleEntry> findByClientAndSaleDateTimeBeforeOrderBySaleDateTimeDesc(Client client, LocalDateTime to);
-
-       // present
+       // present; the accessory is fetched with the entries since their JSON includes its name
+       @EntityGraph(attributePaths = "accessory")
        List<SaleEntry> findBySaleDateTimeBetweenOrderBySaleDateTimeDesc(LocalDateTime from, LocalDateTime to);
 
-       @Query(value = "SELECT t.* FROM public.sale_entry t WHERE DATE(t.sale_date_time) BETWEEN :fromDate AND :toDate "
-                     + //
-                     "    ORDER BY t.sale_date_time ", nativeQuery = true)
-       List<SaleEntry> findBySaleDateBetweenOrderBySaleDateTimeDescCustom(
-                     @Param("fromDate") LocalDate fromDate,
-                     @Param("toDate") LocalDate toDate);
-
-       @Query(value = "SELECT t.* FROM public.sale_entry t WHERE t.client_id =:clientId AND DATE(t.sale_date_time) BETWEEN :fromDate AND :toDate "
-                     + //
-                     "    ORDER BY t.sale_date_time ", nativeQuery = true)
-       List<SaleEntry> findByClientIdAndSaleDateBetweenOrderBySaleDateTimeDescCustom(
-                     @Param("clientId") Long clientId,
-                     @Param("fromDate") LocalDate fromDate,
-                     @Param("toDate") LocalDate toDate);
-
-       // present
-       List<SaleEntry> findAllByOrderBySaleDateTimeDesc();
+       /*
+        * PDF report rows with fromTime <= saleDateTime < toTime; cursor-backed, consume
+        * inside a read-only transaction. Bounded on the partition key so only the
+        * covered months are scanned.
+        */
+       @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+       @Query("SELECT new com.example.wholesalesalesbackend.dto.SaleReportRow(" +
+                     "s.saleDateTime, " + DISPLAY_NAME + ", s.totalPricePaise, s.returnFlag, c.name) " +
+                     "FROM SaleEntry s JOIN s.client c JOIN s.accessory a " +
+                     "WHERE s.saleDateTime >= :fromTime AND s.saleDateTime < :toTime ORDER BY s.saleDateTime")
+       Stream<SaleReportRow> streamReportRows(@Param("fromTime") LocalDateTime fromTime,
+                     @Param("toTime") LocalDateTime toTime);
+
+       @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+       @Query("SELECT new com.example.wholesalesalesbackend.dto.SaleReportRow(" +
+                     "s.saleDateTime, " + DISPLAY_NAME + ", s.totalPricePaise, s.returnFlag, c.name) " +
+                     "FROM SaleEntry s JOIN s.client c JOIN s.accessory a " +
+                     "WHERE c.id = :clientId AND s.saleDateTime >= :fromTime AND s.saleDateTime < :toTime " +
+                     "ORDER BY s.saleDateTime")
+       Stream<SaleReportRow> streamReportRowsByClientId(@Param("clientId") Long clientId,
+                     @Param("fromTime") LocalDateTime fromTime,
+                     @Param("toTime") LocalDateTime toTime);
 
        @Query(value = "SELECT SUM(total_price) AS sale, SUM(profit) AS profit " +
                      "FROM sale_entry WHERE sale_date_time BETWEEN :from AND :to", nativeQuery = true)
@@ -61,25 +69,22 @@ public interface SaleEntryRepository extends JpaRepository<SaleEntry, Long> {
                      @Param("to") LocalDateTime to,
                      @Param("clientId") Long clientId);
 
+       // A missing saleDateTime keeps the current one; the partition key cannot be NULL
        @Modifying
        @Transactional
        @Query(value = "UPDATE sale_entry SET " +
-                     "accessory_name = :accessoryName, " +
-                     "sale_date_time = :saleDateTime, " +
+                     "accessory_id = :accessoryId, " +
+                     "sale_date_time = COALESCE(CAST(:saleDateTime AS timestamp), sale_date_time), " +
                      "total_price = :totalPrice " +
                      "WHERE client_id = :clientId AND " +
                      "id = :saleEntryId", nativeQuery = true)
        int updateSalesByClient(
-                     @Param("accessoryName") String accessoryName,
+                     @Param("accessoryId") Integer accessoryId,
                      @Param("saleDateTime") LocalDateTime saleDateTime,
-                     @Param("totalPrice") double totalPrice,
+                     @Param("totalPrice") long totalPrice,
                      @Param("clientId") Long clientId,
                      @Param("saleEntryId") Long saleEntryId);
 
-       List<SaleEntry> findBySaleDateTimeAfterOrderBySaleDateTimeDesc(LocalDateTime from);
-
-       List<SaleEntry> findBySaleDateTimeBeforeOrderBySaleDateTimeDesc(LocalDateTime to);
-
        @Query(value = "SELECT SUM(total_price) AS sale, SUM(profit) AS profit " +
                      "FROM sale_entry WHERE client_id = :clientId", nativeQuery = true)
        ProfitAndSaleProjection getTotalPriceAndProfitByClient(@Param("clientId") Long clientId);
@@ -87,16 +92,37 @@ public interface SaleEntryRepository extends JpaRepository<SaleEntry, Long> {
        @Query(value = "SELECT SUM(total_price) AS sale, SUM(profit) AS profit FROM sale_entry", nativeQuery = true)
        ProfitAndSaleProjection getTotalPriceAndProfit();
 
-       @Query(value = "SELECT SUM(t.total_price) FROM sale_entry t WHERE DATE(t.sale_date_time) < :fromDate ", nativeQuery = true)
-       Double getOldBalance(
+       /*
+        * sale_date_time rather than sale_day, so partitions from fromDate on are pruned.
+        * Detached months are no longer in sale_entry; their totals come from the rollup.
+        */
+       @Query(value = "SELECT COALESCE((SELECT SUM(t.total_price) FROM sale_entry t WHERE t.sale_date_time < CAST(:fromDate AS timestamp)), 0) + " +
+                     "COALESCE((SELECT SUM(r.sale_total) FROM sale_daily_rollup r JOIN sale_entry_archive a " +
+                     "      ON r.sale_day >= a.archived_month AND r.sale_day < CAST(a.archived_month + interval '1 month' AS date) " +
+                     "      WHERE r.sale_day < :fromDate), 0)", nativeQuery = true)
+       Long getOldBalance(
                      @Param("fromDate") LocalDate fromDate);
 
-       @Query(value = "SELECT SUM(t.total_price) FROM sale_entry t WHERE t.client_id =:clientId AND DATE(t.sale_date_time) < :fromDate ", nativeQuery = true)
-       Double getOldBalanceOfClient(@Param("clientId") Long clientId,
+       @Query(value = "SELECT COALESCE((SELECT SUM(t.total_price) FROM sale_entry t WHERE t.client_id =:clientId AND t.sale_date_time < CAST(:fromDate AS timestamp)), 0) + " +
+                     "COALESCE((SELECT SUM(r.sale_total) FROM sale_daily_rollup r JOIN sale_entry_archive a " +
+                     "      ON r.sale_day >= a.archived_month AND r.sale_day < CAST(a.archived_month + interval '1 month' AS date) " +
+                     "      WHERE r.client_id = :clientId AND r.sale_day < :fromDate), 0)", nativeQuery = true)
+       Long getOldBalanceOfClient(@Param("clientId") Long clientId,
                      @Param("fromDate") LocalDate fromDate);
 
        @Modifying
        @Query(value = "DELETE FROM sale_entry WHERE client_id = :clientId", nativeQuery = true)
        void deleteByClientId(@Param("clientId") Long clientId);
 
+       // See V12__sale_entry_partitioning.sql, V14 and V16; both return the partition's table name
+       @Query(value = "SELECT create_sale_entry_partition(:monthStart)", nativeQuery = true)
+       String createPartition(@Param("monthStart") LocalDate monthStart);
+
+       @Query(value = "SELECT detach_sale_entry_partition(:monthStart)", nativeQuery = true)
+       String detachPartition(@Param("monthStart") LocalDate monthStart);
+
+       // Detached months take no new rows (V15); monthStart is the first of the month
+       @Query(value = "SELECT EXISTS (SELECT 1 FROM sale_entry_archive WHERE archived_month = :monthStart)", nativeQuery = true)
+       boolean isArchived(@Param("monthStart") LocalDate monthStart);
+
 }
@@ -0,0 +1,29 @@
+package com.example.wholesalesalesbackend.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.example.wholesalesalesbackend.dto.BulkSaleUpdateRequest;
+import com.example.wholesalesalesbackend.dto.SaleCursor;
+import com.example.wholesalesalesbackend.dto.SaleEntryDTO;
+import com.example.wholesalesalesbackend.dto.SaleFilter;
+import com.example.wholesalesalesbackend.model.SaleDailyRollupId;
+
+/**
+ * Criteria-built statements over SaleFilter, implemented in SaleEntryRepositoryImpl.
+ */
+public interface SaleEntryRepositoryCustom {
+
+    // Matching rows newest first, strictly after the cursor; limit <= 0 returns every row
+    List<SaleEntryDTO> searchSaleDTOs(SaleFilter filter, SaleCursor after, int limit);
+
+    // Cursor-backed; callers must consume it inside a read-only transaction
+    Stream<SaleEntryDTO> streamSaleDTOs(SaleFilter filter);
+
+    // Distinct (client, day) pairs touched by the filter, for rollup maintenance
+    List<SaleDailyRollupId> findSaleDays(SaleFilter filter);
+
+    int updateMatching(SaleFilter filter, BulkSaleUpdateRequest changes);
+
+    int deleteMatching(SaleFilter filter);
+}
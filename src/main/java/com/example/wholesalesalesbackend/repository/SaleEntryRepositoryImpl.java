@@ -0,0 +1,196 @@
+package com.example.wholesalesalesbackend.repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.example.wholesalesalesbackend.dto.BulkSaleUpdateRequest;
+import com.example.wholesalesalesbackend.dto.SaleCursor;
+import com.example.wholesalesalesbackend.dto.SaleEntryDTO;
+import com.example.wholesalesalesbackend.dto.SaleFilter;
+import com.example.wholesalesalesbackend.model.Accessory;
+import com.example.wholesalesalesbackend.model.Client;
+import com.example.wholesalesalesbackend.model.Paise;
+import com.example.wholesalesalesbackend.model.SaleDailyRollupId;
+import com.example.wholesalesalesbackend.model.SaleEntry;
+import com.example.wholesalesalesbackend.service.AccessoryCache;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CommonAbstractCriteria;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+public class SaleEntryRepositoryImpl implements SaleEntryRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private AccessoryCache accessoryCache;
+
+    @Override
+    public List<SaleEntryDTO> searchSaleDTOs(SaleFilter filter, SaleCursor after, int limit) {
+        TypedQuery<SaleEntryDTO> query = entityManager.createQuery(saleDTOQuery(filter, after));
+        if (limit > 0) {
+            query.setMaxResults(limit);
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public Stream<SaleEntryDTO> streamSaleDTOs(SaleFilter filter) {
+        return entityManager.createQuery(saleDTOQuery(filter, null))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, SaleEntryRepository.STREAM_FETCH_SIZE)
+                .getResultStream();
+    }
+
+    // One SELECT joining clients and the catalog for the names, ordered to match idx_sale_entry_sale_date_time_id
+    private CriteriaQuery<SaleEntryDTO> saleDTOQuery(SaleFilter filter, SaleCursor after) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SaleEntryDTO> query = cb.createQuery(SaleEntryDTO.class);
+        Root<SaleEntry> root = query.from(SaleEntry.class);
+        Join<SaleEntry, Client> client = root.join("client");
+        Join<SaleEntry, Accessory> accessory = root.join("accessory");
+
+        query.select(cb.construct(SaleEntryDTO.class,
+                root.get("id"),
+                cb.concat(cb.<String>selectCase()
+                        .when(cb.isTrue(root.get("returnFlag")), Accessory.RETURN_PREFIX)
+                        .otherwise(Accessory.ADD_PREFIX), accessory.<String>get("name")),
+                root.get("quantity"),
+                // Rupees, as the DTO has always carried them
+                cb.quot(root.<Long>get("totalPricePaise"), 100.0),
+                cb.quot(root.<Long>get("profitPaise"), 100.0),
+                root.get("saleDateTime"),
+                root.get("returnFlag"),
+                client.get("name"),
+                root.get("note")));
+
+        List<Predicate> predicates = new ArrayList<>(List.of(predicates(cb, query, root, filter)));
+        if (after != null) {
+            Path<LocalDateTime> saleDateTime = root.get("saleDateTime");
+            // (saleDateTime, id) < (cursorTime, cursorId); the first term bounds the index scan
+            predicates.add(cb.lessThanOrEqualTo(saleDateTime, after.getSaleDateTime()));
+            predicates.add(cb.or(
+                    cb.lessThan(saleDateTime, after.getSaleDateTime()),
+                    cb.lessThan(root.get("id"), after.getId())));
+        }
+
+        query.where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(root.get("saleDateTime")), cb.desc(root.get("id")));
+        return query;
+    }
+
+    @Override
+    public List<SaleDailyRollupId> findSaleDays(SaleFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<SaleEntry> root = query.from(SaleEntry.class);
+
+        Path<Long> clientId = root.get("client").get("id");
+        Path<LocalDate> saleDay = root.get("saleDay");
+        query.multiselect(clientId, saleDay)
+                .distinct(true)
+                .where(cb.and(predicates(cb, query, root, filter)), cb.isNotNull(clientId), cb.isNotNull(saleDay));
+
+        List<SaleDailyRollupId> days = new ArrayList<>();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            days.add(new SaleDailyRollupId(row.get(0, Long.class), row.get(1, LocalDate.class)));
+        }
+        return days;
+    }
+
+    @Override
+    public int updateMatching(SaleFilter filter, BulkSaleUpdateRequest changes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<SaleEntry> update = cb.createCriteriaUpdate(SaleEntry.class);
+        Root<SaleEntry> root = update.from(SaleEntry.class);
+        Expression<Boolean> isReturn = cb.isTrue(root.get("returnFlag"));
+
+        if (changes.getTotalPrice() != null) {
+            long price = Math.abs(Paise.of(changes.getTotalPrice()));
+            update.set(root.<Long>get("totalPricePaise"), cb.<Long>selectCase()
+                    .when(isReturn, -price)
+                    .otherwise(price));
+        }
+        if (changes.getProfit() != null) {
+            long profit = Math.abs(Paise.of(changes.getProfit()));
+            update.set(root.<Long>get("profitPaise"), cb.<Long>selectCase()
+                    .when(isReturn, -profit)
+                    .otherwise(profit));
+        }
+        if (changes.getAccessoryName() != null) {
+            // Direction stays in returnFlag; every matched entry points at the same catalog row
+            update.set(root.<Accessory>get("accessory"),
+                    entityManager.getReference(Accessory.class, accessoryCache.idFor(changes.getAccessoryName())));
+        }
+        if (changes.getNote() != null) {
+            update.set(root.<String>get("note"), changes.getNote());
+        }
+
+        update.where(predicates(cb, update, root, filter));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public int deleteMatching(SaleFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaDelete<SaleEntry> delete = cb.createCriteriaDelete(SaleEntry.class);
+        Root<SaleEntry> root = delete.from(SaleEntry.class);
+
+        delete.where(predicates(cb, delete, root, filter));
+        return entityManager.createQuery(delete).executeUpdate();
+    }
+
+    private Predicate[] predicates(CriteriaBuilder cb, CommonAbstractCriteria query, Root<SaleEntry> root,
+            SaleFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (filter.getIds() != null && !filter.getIds().isEmpty()) {
+            predicates.add(root.get("id").in(filter.getIds()));
+        }
+        if (filter.getClientId() != null) {
+            // client_id column directly, no join to clients
+            predicates.add(cb.equal(root.get("client").get("id"), filter.getClientId()));
+        }
+        if (filter.getFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("saleDateTime"), filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("saleDateTime"), filter.getTo()));
+        }
+        if (filter.getReturnFlag() != null) {
+            predicates.add(cb.equal(root.get("returnFlag"), filter.getReturnFlag()));
+        }
+        if (filter.getAccessory() != null && !filter.getAccessory().isBlank()) {
+            String pattern = "%" + filter.getAccessory().trim().toLowerCase()
+                    .replace("\\", "\\\\")
+                    .replace("%", "\\%")
+                    .replace("_", "\\_") + "%";
+            // Matches catalog names; the ids are resolved in a subquery on the small accessory table
+            Subquery<Integer> ids = query.subquery(Integer.class);
+            Root<Accessory> accessory = ids.from(Accessory.class);
+            ids.select(accessory.get("id"))
+                    .where(cb.like(cb.lower(accessory.get("name")), pattern, '\\'));
+            predicates.add(root.get("accessory").get("id").in(ids));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.example.wholesalesalesbackend.repository;
+
+import java.time.LocalDate;
+
+public interface SalesSeriesProjection {
+    LocalDate getBucket();
+
+    Long getNetTotal();
+
+    Long getNetProfit();
+
+    Long getEntryCount();
+
+    Long getReturnTotal();
+
+    Long getReturnProfit();
+
+    Long getReturnCount();
+}
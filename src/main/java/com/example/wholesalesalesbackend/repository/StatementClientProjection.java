@@ -0,0 +1,11 @@
+package com.example.wholesalesalesbackend.repository;
+
+public interface StatementClientProjection {
+    Long getClientId();
+
+    String getClientName();
+
+    Long getOpeningBalance();
+
+    Long getEntryCount();
+}
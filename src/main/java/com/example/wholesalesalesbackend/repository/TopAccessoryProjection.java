@@ -0,0 +1,13 @@
+package com.example.wholesalesalesbackend.repository;
+
+public interface TopAccessoryProjection {
+    Integer getAccessoryId();
+
+    String getAccessoryName();
+
+    Long getQuantity();
+
+    Long getRevenue();
+
+    Long getProfit();
+}
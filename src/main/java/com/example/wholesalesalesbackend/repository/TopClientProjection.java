@@ -0,0 +1,13 @@
+package com.example.wholesalesalesbackend.repository;
+
+public interface TopClientProjection {
+    Long getClientId();
+
+    String getClientName();
+
+    Long getRevenue();
+
+    Long getProfit();
+
+    Long getEntryCount();
+}
@@ -0,0 +1,139 @@
+package com.example.wholesalesalesbackend.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.wholesalesalesbackend.model.Accessory;
+import com.example.wholesalesalesbackend.repository.AccessoryRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Product name to catalog id, for the sale insert and update paths. Catalog
+ * rows are never renamed or deleted, so entries need no expiry or eviction.
+ * A new name is inserted in the caller's transaction, on the caller's
+ * connection, and its id is only cached once that transaction commits.
+ */
+@Component
+public class AccessoryCache {
+
+    public static final String UNKNOWN = "UNKNOWN";
+
+    @Autowired
+    private AccessoryRepository accessoryRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${accessory.cache.max-size:20000}")
+    private long maxSize;
+
+    private Cache<String, Integer> idsByName;
+
+    @PostConstruct
+    void init() {
+        idsByName = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByName, "accessories.idByName");
+    }
+
+    /**
+     * Catalog id for a product name, adding the name on first use. A leading
+     * ADD -> / RETURN -> (as older clients still send) is ignored.
+     */
+    public Integer idFor(String name) {
+        String key = normalize(name);
+        Integer id = idsByName.getIfPresent(key);
+        if (id != null) {
+            return id;
+        }
+
+        PendingInserts pending = pendingInserts();
+        if (pending != null && pending.ids.containsKey(key)) {
+            return pending.ids.get(key);
+        }
+
+        Optional<Integer> existing = accessoryRepository.findByName(key).map(Accessory::getId);
+        if (existing.isPresent()) {
+            idsByName.put(key, existing.get());
+            return existing.get();
+        }
+
+        // Waits for a concurrent insert of the same name to commit (or roll back) before going on
+        Optional<Integer> inserted = accessoryRepository.insertIfAbsent(key);
+        if (inserted.isEmpty()) {
+            id = accessoryRepository.findByName(key)
+                    .map(Accessory::getId)
+                    .orElseThrow(() -> new RuntimeException("Accessory not found: " + key));
+            idsByName.put(key, id);
+            return id;
+        }
+        if (pending != null) {
+            pending.ids.put(key, inserted.get());
+        } else {
+            idsByName.put(key, inserted.get());
+        }
+        return inserted.get();
+    }
+
+    /**
+     * Resolves many names in name order. Each new name holds its catalog row
+     * lock until the caller commits, so two bulk inserts taking new names in
+     * different orders could otherwise deadlock.
+     */
+    public void resolveAll(Collection<String> names) {
+        new TreeSet<>(names.stream().map(AccessoryCache::normalize).toList()).forEach(this::idFor);
+    }
+
+    // Names this transaction added; null outside a transaction, where the insert commits at once
+    private PendingInserts pendingInserts() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingInserts pending) {
+                return pending;
+            }
+        }
+        PendingInserts pending = new PendingInserts();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    public static String normalize(String name) {
+        if (name == null) {
+            return UNKNOWN;
+        }
+        String trimmed = name.trim();
+        if (trimmed.startsWith(Accessory.ADD_PREFIX)) {
+            trimmed = trimmed.substring(Accessory.ADD_PREFIX.length()).trim();
+        } else if (trimmed.startsWith(Accessory.RETURN_PREFIX)) {
+            trimmed = trimmed.substring(Accessory.RETURN_PREFIX.length()).trim();
+        }
+        return trimmed.isEmpty() ? UNKNOWN : trimmed;
+    }
+
+    // A rolled-back insert leaves nothing behind, so a cached id never points at a missing row
+    private class PendingInserts implements TransactionSynchronization {
+
+        private final Map<String, Integer> ids = new HashMap<>();
+
+        @Override
+        public void afterCommit() {
+            idsByName.putAll(ids);
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.example.wholesalesalesbackend.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.wholesalesalesbackend.dto.ClientBalanceRow;
+import com.example.wholesalesalesbackend.dto.ClientBalanceSummary;
+import com.example.wholesalesalesbackend.model.ClientBalanceSnapshot;
+import com.example.wholesalesalesbackend.model.Paise;
+import com.example.wholesalesalesbackend.repository.ClientBalanceSnapshotRepository;
+import com.example.wholesalesalesbackend.repository.ClientBalanceSummaryProjection;
+import com.example.wholesalesalesbackend.repository.ProfitAndSaleProjection;
+import com.example.wholesalesalesbackend.repository.SaleDailyRollupRepository;
+
+/**
+ * Opening balances from the nearest closing-balance snapshot plus the daily
+ * rollup since it, instead of summing a client's entire history.
+ */
+@Service
+public class ClientBalanceService {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(1970, 1, 1);
+
+    @Autowired
+    private ClientBalanceSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private SaleDailyRollupRepository rollupRepository;
+
+    /**
+     * Balance of the client's entries before fromDate, in rupees. Also records a
+     * snapshot at fromDate - 1 so the next statement from the same date is a
+     * single lookup.
+     */
+    @Transactional
+    public Double getOpeningBalance(Long clientId, LocalDate fromDate) {
+        lockClient(clientId);
+
+        Optional<ClientBalanceSnapshot> snapshot = snapshotRepository
+                .findTopByClientIdAndSnapshotDayLessThanOrderBySnapshotDayDesc(clientId, fromDate);
+
+        LocalDate closingDay = fromDate.minusDays(1);
+        if (snapshot.isPresent() && snapshot.get().getSnapshotDay().equals(closingDay)) {
+            return Paise.toRupees(snapshot.get().getClosingBalance());
+        }
+
+        long balance = snapshot.map(ClientBalanceSnapshot::getClosingBalance).orElse(0L);
+        LocalDate deltaFrom = snapshot.map(s -> s.getSnapshotDay().plusDays(1)).orElse(FIRST_DAY);
+
+        ProfitAndSaleProjection delta = rollupRepository.sumBetweenDaysByClient(deltaFrom, closingDay, clientId);
+        if (delta != null && delta.getSale() != null) {
+            balance += delta.getSale();
+        }
+
+        // Only closed days are worth keeping; today's snapshot would be dropped by the next sale
+        if (closingDay.isBefore(LocalDate.now(ZoneId.of("Asia/Kolkata")))) {
+            snapshotRepository.upsert(clientId, closingDay, balance);
+        }
+        return Paise.toRupees(balance);
+    }
+
+    /**
+     * Holds the client's balance lock until the transaction ends. A snapshot is
+     * computed under it and every rollup change takes it before invalidating, so
+     * a snapshot read from the old rollup is either committed before the delete
+     * that removes it or computed after the change is visible.
+     */
+    public void lockClient(Long clientId) {
+        snapshotRepository.lockClient(clientId);
+    }
+
+    // Waits for, then holds off, every per-client lock; for writes covering all clients
+    public void lockAllClients() {
+        snapshotRepository.lockAllClients();
+    }
+
+    /**
+     * Drops snapshots that include saleDay. Called from SaleRollupService for
+     * every change to a client's day, so back-dated entries and edits are covered.
+     */
+    public void invalidateFrom(Long clientId, LocalDate saleDay) {
+        lockClient(clientId);
+        snapshotRepository.deleteFrom(clientId, saleDay);
+    }
+
+    public void invalidateAll() {
+        lockAllClients();
+        snapshotRepository.deleteAllRows();
+    }
+
+    // Just after midnight IST on the 1st, close the previous month for every client
+    @Scheduled(cron = "0 30 0 1 * *", zone = "Asia/Kolkata")
+    @Transactional
+    public void snapshotPreviousMonth() {
+        LocalDate monthEnd = LocalDate.now(ZoneId.of("Asia/Kolkata")).withDayOfMonth(1).minusDays(1);
+        lockAllClients();
+        snapshotRepository.snapshotAllClients(monthEnd);
+    }
+
+    /**
+     * Every client's balance from the client_balance_summary view, which may be
+     * up to one refresh interval behind the ledger.
+     */
+    @Transactional(readOnly = true)
+    public ClientBalanceSummary getBalanceSummary() {
+        List<ClientBalanceRow> clients = new ArrayList<>();
+        LocalDateTime refreshedAt = null;
+        Long staleSeconds = null;
+
+        for (ClientBalanceSummaryProjection row : snapshotRepository.findBalanceSummary()) {
+            clients.add(new ClientBalanceRow(row.getClientId(), row.getClientName(), Paise.toRupees(row.getBalance()),
+                    row.getLastSaleDay(), row.getEntryCount()));
+            refreshedAt = row.getRefreshedAt();
+            staleSeconds = row.getStaleSeconds();
+        }
+        return new ClientBalanceSummary(refreshedAt, staleSeconds, clients);
+    }
+
+    @Scheduled(fixedDelayString = "${clients.balance-summary.refresh-delay-ms:60000}")
+    @Transactional
+    public void refreshBalanceSummary() {
+        snapshotRepository.refreshBalanceSummary();
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.example.wholesalesalesbackend.service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.wholesalesalesbackend.config.PrimaryReads;
+import com.example.wholesalesalesbackend.dto.ClientDTO;
+import com.example.wholesalesalesbackend.mapper.SaleEntryMapper;
+import com.example.wholesalesalesbackend.repository.ClientRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Bounded in-process cache of clients by id and by name in front of
+ * ClientRepository. Holds ClientDTO copies rather than entities so cached
+ * values never touch a closed session. ClientService evicts on every change,
+ * and misses load from the primary, so a lagging replica cannot put the old
+ * row back for the whole ttl.
+ */
+@Component
+public class ClientCache {
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private PrimaryReads primaryReads;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${client.cache.max-size:2000}")
+    private long maxSize;
+
+    @Value("${client.cache.ttl:PT30M}")
+    private Duration ttl;
+
+    private Cache<Long, ClientDTO> byId;
+    private Cache<String, ClientDTO> byName;
+
+    @PostConstruct
+    void init() {
+        byId = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        byName = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+
+        // Published as cache.gets{result=hit|miss}, cache.evictions, cache.size
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "clients.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, byName, "clients.byName");
+    }
+
+    public Optional<ClientDTO> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        // A null from the loader is not cached, so unknown ids are looked up again next time
+        return Optional.ofNullable(byId.get(id, key -> primaryReads.get(() -> clientRepository.findById(key)
+                .map(SaleEntryMapper::toClientDTO)
+                .orElse(null))));
+    }
+
+    public Optional<ClientDTO> findByName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(byName.get(name, key -> primaryReads.get(() -> clientRepository.findByName(key)
+                .map(SaleEntryMapper::toClientDTO)
+                .orElse(null))));
+    }
+
+    /**
+     * Drops both entries now and again once the surrounding transaction
+     * commits, so a reader racing the write cannot re-cache the old row.
+     */
+    public void evict(Long id, String name) {
+        evictNow(id, name);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(id, name);
+                }
+            });
+        }
+    }
+
+    private void evictNow(Long id, String name) {
+        if (id != null) {
+            byId.invalidate(id);
+        }
+        if (name != null) {
+            byName.invalidate(name);
+        }
+    }
+
+}
@@ -2,14 +2,14 @@ package com.example.wholesalesalesbackend.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.wholesalesalesbackend.config.PrimaryReads;
 import com.example.wholesalesalesbackend.dto.ClientCreateRequest;
+import com.example.wholesalesalesbackend.dto.ClientDTO;
 import com.example.wholesalesalesbackend.model.Client;
 import com.example.wholesalesalesbackend.repository.ClientRepository;
 import com.example.wholesalesalesbackend.repository.SaleEntryRepository;
-import com.itextpdf.text.pdf.PdfStructTreeController.returnType;
-
-import jakarta.transaction.Transactional;
 
 import java.util.List;
 
@@ -22,36 +22,58 @@ public class ClientService {
     @Autowired
     SaleEntryRepository saleEntryRepository;
 
+    @Autowired
+    private ClientCache clientCache;
+
+    @Autowired
+    private PrimaryReads primaryReads;
+
+    // Writes run in one read-write transaction, so their lookups see the primary too
+    @Transactional
     public Client addClient(Client client) {
         if (clientRepository.existsByName(client.getName())) {
             throw new RuntimeException("Client already exists with name: " + client.getName());
         }
-        return clientRepository.save(client);
+        Client saved = clientRepository.save(client);
+        clientCache.evict(saved.getId(), saved.getName());
+        return saved;
     }
 
     public List<Client> getAllClients() {
         return clientRepository.findAll();
     }
 
+    // From the primary: a client created a moment ago may not have reached the replica
     public Client getClientById(Long id) {
-        return clientRepository.findById(id)
+        return primaryReads.get(() -> clientRepository.findById(id))
+                .orElseThrow(() -> new RuntimeException("Client not found with id: " + id));
+    }
+
+    // Cached lookup for callers that only need the client's fields, not the entity
+    public ClientDTO getClientDTOById(Long id) {
+        return clientCache.findById(id)
                 .orElseThrow(() -> new RuntimeException("Client not found with id: " + id));
     }
 
     public Client getClientByName(String name) {
-        return clientRepository.findByName(name)
+        return primaryReads.get(() -> clientRepository.findByName(name))
                 .orElseThrow(() -> new RuntimeException("Client not found with name: " + name));
     }
 
+    @Transactional
     public Client updateClient(Long id, ClientCreateRequest request) {
         Client existing = clientRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Client not found"));
 
+        clientCache.evict(existing.getId(), existing.getName());
+
         existing.setName(request.getName());
         existing.setLocation(request.getLocation());
         existing.setContact(request.getContact());
 
-        return clientRepository.save(existing);
+        Client saved = clientRepository.save(existing);
+        clientCache.evict(saved.getId(), saved.getName());
+        return saved;
     }
 
     @Transactional
@@ -59,8 +81,10 @@ public class ClientService {
         Client existing = clientRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Client not found"));
 
+        // Rows in detached months stay in their archive tables (V16); rollups go by cascade
         saleEntryRepository.deleteByClientId(existing.getId());
         clientRepository.delete(existing);
+        clientCache.evict(existing.getId(), existing.getName());
         return "Deleted !!!";
     }
 
@@ -0,0 +1,194 @@
+package com.example.wholesalesalesbackend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.example.wholesalesalesbackend.repository.SaleDailyRollupRepository;
+
+/**
+ * Rendered sales PDFs kept on disk under pdf.directory/cache, named by a hash
+ * of the report parameters and the rollup data version of the range. The
+ * same hash is the HTTP ETag. Least recently served files are removed once
+ * the cache grows past pdf.cache.max-size.
+ */
+@Service
+public class PdfCacheService {
+
+    @Autowired
+    private SaleDailyRollupRepository rollupRepository;
+
+    @Value("${pdf.directory:generated-pdfs}")
+    private String directory;
+
+    @Value("${pdf.cache.max-size:256MB}")
+    private DataSize maxSize;
+
+    /**
+     * Identifies one rendering of a report from its parameters and rollup
+     * versions alone, so a conditional request costs no balance computation.
+     * Without an explicit oldBalance the version reaches back before from,
+     * where the opening balance comes from. Today's date is printed on the
+     * document.
+     */
+    public String etag(Long clientId, String clientName, LocalDate from, LocalDate to, Double depositAmount,
+            LocalDateTime depositDateTime, Double oldBalance) {
+
+        String version;
+        if (oldBalance != null) {
+            version = clientId != null
+                    ? rollupRepository.dataVersionByClient(from, to, clientId)
+                    : rollupRepository.dataVersion(from, to);
+        } else {
+            version = clientId != null
+                    ? rollupRepository.dataVersionThroughByClient(to, clientId)
+                    : rollupRepository.dataVersionThrough(to);
+        }
+
+        String key = String.join("|",
+                String.valueOf(clientId), clientName, String.valueOf(from), String.valueOf(to),
+                String.valueOf(depositAmount), String.valueOf(depositDateTime), String.valueOf(oldBalance),
+                String.valueOf(LocalDate.now(ZoneId.of("Asia/Kolkata"))), version);
+
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Marks a hit as recently used, which is what eviction orders by
+    public Optional<Path> find(String etag) {
+        Path file = cacheDir().resolve(etag + ".pdf");
+        if (!Files.isReadable(file)) {
+            return Optional.empty();
+        }
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // still servable, it just ages out sooner
+        }
+        return Optional.of(file);
+    }
+
+    /**
+     * Runs renderer against out and a cache file at the same time, so a miss
+     * still streams to the client. The file is only published once the
+     * renderer finished without error.
+     */
+    public void writeThrough(String etag, OutputStream out, Consumer<OutputStream> renderer) throws IOException {
+        Path dir = cacheDir();
+        Files.createDirectories(dir);
+        Path partial = Files.createTempFile(dir, etag, ".part");
+
+        try (OutputStream file = Files.newOutputStream(partial)) {
+            renderer.accept(new TeeOutputStream(out, file));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+
+        Files.move(partial, dir.resolve(etag + ".pdf"), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        evict();
+    }
+
+    private synchronized void evict() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> listing = Files.list(cacheDir())) {
+            listing.filter(path -> path.toString().endsWith(".pdf")).forEach(files::add);
+        }
+
+        long total = 0;
+        for (Path file : files) {
+            total += sizeOf(file);
+        }
+        if (total <= maxSize.toBytes()) {
+            return;
+        }
+
+        files.sort(Comparator.comparing(PdfCacheService::lastModified));
+        for (Path file : files) {
+            if (total <= maxSize.toBytes()) {
+                break;
+            }
+            long size = sizeOf(file);
+            if (Files.deleteIfExists(file)) {
+                total -= size;
+            }
+        }
+    }
+
+    private Path cacheDir() {
+        return Paths.get(directory, "cache");
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static class TeeOutputStream extends OutputStream {
+
+        private final OutputStream first;
+        private final OutputStream second;
+
+        TeeOutputStream(OutputStream first, OutputStream second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            first.write(b);
+            second.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            first.write(b, off, len);
+            second.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            first.flush();
+            second.flush();
+        }
+    }
+
+}
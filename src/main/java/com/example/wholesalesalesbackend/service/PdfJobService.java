@@ -0,0 +1,220 @@
+package com.example.wholesalesalesbackend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.wholesalesalesbackend.dto.PdfJobStatus;
+import com.example.wholesalesalesbackend.model.PdfLog;
+import com.example.wholesalesalesbackend.repository.PdfLogRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Renders sales PDFs in the background. Jobs are queued as PENDING rows in
+ * pdf_log; every instance polls the queue, claims what its worker pool can
+ * take with FOR UPDATE SKIP LOCKED, and writes the file under pdf.directory.
+ * The job keeps the file's name relative to that directory, so with more than
+ * one instance pdf.directory must be storage they all share.
+ */
+@Service
+public class PdfJobService {
+
+    private static final ZoneId INDIA_ZONE = ZoneId.of("Asia/Kolkata");
+
+    @Autowired
+    private PdfLogRepository pdfLogRepository;
+
+    @Autowired
+    private SalesReportService salesReportService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${pdf.directory:generated-pdfs}")
+    private String directory;
+
+    @Value("${pdf.jobs.threads:2}")
+    private int threads;
+
+    // RUNNING jobs claimed longer ago than this are assumed lost and re-queued
+    @Value("${pdf.jobs.stale-after:PT15M}")
+    private Duration staleAfter;
+
+    // Finished jobs and their files are deleted this long after they were requested
+    @Value("${pdf.jobs.retention:P7D}")
+    private Duration retention;
+
+    private ExecutorService workers;
+
+    // One permit per worker thread, so nothing is claimed that cannot start right away
+    private Semaphore capacity;
+
+    @PostConstruct
+    void init() {
+        workers = Executors.newFixedThreadPool(threads);
+        capacity = new Semaphore(threads);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+
+    public PdfJobStatus enqueue(Long clientId, LocalDate from, LocalDate to, Double depositAmount,
+            LocalDateTime depositDateTime, Double oldBalance) {
+
+        PdfLog job = PdfLog.builder()
+                .status(PdfLog.PENDING)
+                .clientId(clientId)
+                .fromDate(from)
+                .toDate(to)
+                .depositAmount(depositAmount)
+                .depositDateTime(depositDateTime)
+                .oldBalance(oldBalance)
+                .requestedAt(LocalDateTime.now(INDIA_ZONE))
+                .build();
+
+        return toStatus(pdfLogRepository.save(job));
+    }
+
+    public PdfJobStatus getStatus(Long id) {
+        return toStatus(getJob(id));
+    }
+
+    public PdfLog getJob(Long id) {
+        return pdfLogRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("PDF job not found with id: " + id));
+    }
+
+    // Rows from before the job queue may hold a full path; resolve() keeps those as they are
+    public Path fileOf(PdfLog job) {
+        return job.getFilePath() != null ? Paths.get(directory).resolve(job.getFilePath()) : null;
+    }
+
+    @Scheduled(cron = "${pdf.jobs.sweep-cron:0 15 3 * * *}", zone = "Asia/Kolkata")
+    public void sweep() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<PdfLog> expired = pdfLogRepository.lockFinished(LocalDateTime.now(INDIA_ZONE).minus(retention));
+            expired.forEach(job -> deleteQuietly(fileOf(job)));
+            pdfLogRepository.deleteAllInBatch(expired);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${pdf.jobs.poll-delay-ms:2000}")
+    public void poll() {
+        transactionTemplate.executeWithoutResult(
+                status -> pdfLogRepository.requeueStale(LocalDateTime.now(INDIA_ZONE).minus(staleAfter)));
+
+        int free = capacity.availablePermits();
+        if (free == 0) {
+            return;
+        }
+
+        // Claim and mark RUNNING in one short transaction; rendering happens outside it
+        List<PdfLog> claimed = transactionTemplate.execute(status -> {
+            List<PdfLog> jobs = pdfLogRepository.lockPending(free);
+            for (PdfLog job : jobs) {
+                job.setStatus(PdfLog.RUNNING);
+                // Stored as timestamp(6), so the worker can match it exactly when it finishes
+                job.setClaimedAt(LocalDateTime.now(INDIA_ZONE).truncatedTo(ChronoUnit.MICROS));
+            }
+            return pdfLogRepository.saveAll(jobs);
+        });
+
+        for (PdfLog job : claimed) {
+            capacity.acquireUninterruptibly();
+            workers.execute(() -> {
+                try {
+                    render(job);
+                } finally {
+                    capacity.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * Renders into a file unique to this claim and records the result only if
+     * the job is still this worker's. A slow render whose job was re-queued and
+     * claimed by another worker throws its own file away.
+     */
+    private void render(PdfLog job) {
+        Path file = null;
+        try {
+            String clientName = salesReportService.clientName(job.getClientId());
+            Double oldBalance = job.getOldBalance() != null
+                    ? job.getOldBalance()
+                    : salesReportService.openingBalance(job.getClientId(), job.getFromDate());
+
+            Path dir = Paths.get(directory);
+            Files.createDirectories(dir);
+
+            // Written under a temporary name so a download never sees a half-written file
+            Path partial = Files.createTempFile(dir, "sales_report_" + job.getId() + "_", ".pdf.part");
+            String stored = partial.getFileName().toString();
+            file = dir.resolve(stored.substring(0, stored.length() - ".part".length()));
+            try {
+                try (OutputStream out = Files.newOutputStream(partial)) {
+                    salesReportService.writeReport(out, job.getClientId(), clientName, job.getFromDate(),
+                            job.getToDate(), job.getDepositAmount(), job.getDepositDateTime(), oldBalance);
+                }
+                Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+
+            // The name the download is offered under
+            String fileName = "sales_report_" + job.getId() + "_" + clientName.replaceAll("[^A-Za-z0-9_-]", "_")
+                    + ".pdf";
+            String filePath = file.getFileName().toString();
+            int updated = transactionTemplate.execute(status -> pdfLogRepository.markDone(job.getId(),
+                    job.getClaimedAt(), fileName, filePath, clientName, LocalDateTime.now(INDIA_ZONE)));
+            if (updated == 0) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(file);
+            String message = String.valueOf(e.getMessage());
+            String error = message.length() > 1000 ? message.substring(0, 1000) : message;
+            transactionTemplate.executeWithoutResult(
+                    status -> pdfLogRepository.markFailed(job.getId(), job.getClaimedAt(), error));
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Nothing points at a stray file once the job is failed or owned by another claim
+        }
+    }
+
+    private static PdfJobStatus toStatus(PdfLog job) {
+        return new PdfJobStatus(job.getId(), job.getStatus(), job.getFileName(), job.getRequestedAt(),
+                job.getGeneratedAt(), job.getError());
+    }
+
+}
@@ -1,17 +1,17 @@
 package com.example.wholesalesalesbackend.service;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.Iterator;
 import java.util.stream.Stream;
 
 import org.springframework.stereotype.Service;
 
-import com.example.wholesalesalesbackend.model.SaleEntry;
+import com.example.wholesalesalesbackend.dto.SaleReportRow;
+import com.example.wholesalesalesbackend.model.Paise;
 import com.itextpdf.text.BaseColor;
 import com.itextpdf.text.Chunk;
 import com.itextpdf.text.Document;
@@ -28,9 +28,18 @@ import com.itextpdf.text.pdf.PdfWriter;
 @Service
 public class PdfService {
 
-    public ByteArrayInputStream generateSalesPdf(
+    // Completed rows are written out in chunks of this size rather than held until the table ends
+    private static final int FLUSH_ROWS = 100;
+
+    /**
+     * Renders the report straight into out, e.g. the servlet response, without
+     * buffering the document. Rows are consumed one at a time as they arrive.
+     * out is flushed but left open for the caller.
+     */
+    public void writeSalesPdf(
+            OutputStream out,
             String clientName,
-            List<SaleEntry> sales,
+            Iterator<SaleReportRow> sales,
             LocalDate from,
             LocalDate to,
             boolean isAllClient,
@@ -38,19 +47,19 @@ public class PdfService {
             LocalDateTime depositDateTime,
             Double oldBalance) {
 
-        if (oldBalance == null) {
-            oldBalance = 0.0;
-        }
+        // Paise from here on, so the running total is exact
+        long openingBalance = Paise.of(oldBalance);
+
         // Ensure India timezone
         ZoneId indiaZone = ZoneId.of("Asia/Kolkata");
         LocalDate indiaToday = LocalDate.now(indiaZone);
         LocalDateTime indiaNow = LocalDateTime.now(indiaZone);
 
         Document document = new Document();
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
 
         try {
-            PdfWriter.getInstance(document, out);
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
             document.open();
 
             // Fonts
@@ -90,7 +99,7 @@ public class PdfService {
                 LocalDate modifiedFromDateBeforeOneDay = from.minusDays(1);
                 String dateInString = "(" + modifiedFromDateBeforeOneDay.format(formatter) + ")";
                 PdfPCell oldBalanceCell = new PdfPCell(
-                        new Phrase(dateInString + " Tak Ka Pending Amount = ₹" + oldBalance, redFont));
+                        new Phrase(dateInString + " Tak Ka Pending Amount = ₹" + Paise.toRupees(openingBalance), redFont));
                 oldBalanceCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
                 oldBalanceCell.setBorder(Rectangle.NO_BORDER);
                 oldBalanceCell.setNoWrap(true);
@@ -104,6 +113,10 @@ public class PdfService {
             int columnCount = isAllClient ? 5 : 4;
             PdfPTable table = new PdfPTable(columnCount);
             table.setWidthPercentage(100);
+            // Large table mode: each document.add(table) flushes the finished rows,
+            // and the header row is repeated on every page
+            table.setComplete(false);
+            table.setHeaderRows(1);
             if (isAllClient) {
                 table.setWidths(new float[] { 10f, 20f, 40f, 10f, 20f });
             } else {
@@ -122,11 +135,12 @@ public class PdfService {
 
             // Table Rows
             int sr = 1;
-            Double totalSales = 0.0;
+            long totalSales = 0L;
             BaseColor yellow = new BaseColor(255, 255, 153);
 
-            for (SaleEntry sale : sales) {
-                boolean isReturn = Boolean.TRUE.equals(sale.isReturnFlag());
+            while (sales.hasNext()) {
+                SaleReportRow sale = sales.next();
+                boolean isReturn = sale.isReturnFlag();
 
                 PdfPCell srCell = new PdfPCell(new Phrase(String.valueOf(sr++), fontNormal));
                 PdfPCell dateCell = new PdfPCell(
@@ -136,9 +150,9 @@ public class PdfService {
                 PdfPCell accessoryCell = new PdfPCell(new Phrase(sale.getAccessoryName(), fontNormal));
                 PdfPCell clientCell = null;
                 if (isAllClient) {
-                    clientCell = new PdfPCell(new Phrase(sale.getClient().getName(), fontNormal));
+                    clientCell = new PdfPCell(new Phrase(sale.getClientName(), fontNormal));
                 }
-                PdfPCell priceCell = new PdfPCell(new Phrase("₹" + sale.getTotalPrice(), fontNormal));
+                PdfPCell priceCell = new PdfPCell(new Phrase("₹" + Paise.toRupees(sale.getTotalPricePaise()), fontNormal));
 
                 if (isReturn) {
                     srCell.setBackgroundColor(yellow);
@@ -157,21 +171,26 @@ public class PdfService {
                 }
                 table.addCell(priceCell);
 
-                totalSales += sale.getTotalPrice();
+                totalSales += sale.getTotalPricePaise();
+
+                if ((sr - 1) % FLUSH_ROWS == 0) {
+                    document.add(table);
+                }
             }
 
+            table.setComplete(true);
             document.add(table);
             document.add(Chunk.NEWLINE);
 
             // ===== Final Summary =====
-            Double finalBalance = oldBalance + totalSales;
+            long finalBalance = openingBalance + totalSales;
 
             PdfPTable summaryTable = new PdfPTable(1);
             summaryTable.setWidthPercentage(50);
             summaryTable.setHorizontalAlignment(Element.ALIGN_RIGHT);
 
             PdfPCell finalCell = new PdfPCell(new Phrase(
-                    to.format(formatter) + " Ka Final Amount = ₹" + finalBalance,
+                    to.format(formatter) + " Ka Final Amount = ₹" + Paise.toRupees(finalBalance),
                     redFont // Entire text green
             ));
             finalCell.setBorder(Rectangle.NO_BORDER);
@@ -197,8 +216,6 @@ public class PdfService {
         } catch (Exception e) {
             throw new RuntimeException("Error generating PDF: " + e.getMessage());
         }
-
-        return new ByteArrayInputStream(out.toByteArray());
     }
 
 }
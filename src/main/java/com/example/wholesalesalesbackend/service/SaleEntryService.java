@@ -2,49 +2,149 @@ package com.example.wholesalesalesbackend.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.wholesalesalesbackend.dto.BulkOperationResult;
+import com.example.wholesalesalesbackend.dto.BulkSaleEntryResult;
+import com.example.wholesalesalesbackend.dto.BulkSaleUpdateRequest;
+import com.example.wholesalesalesbackend.dto.ClientDTO;
 import com.example.wholesalesalesbackend.dto.ProfitAndSale;
 import com.example.wholesalesalesbackend.dto.SaleAttributeUpdateDTO;
+import com.example.wholesalesalesbackend.dto.SaleCursor;
 import com.example.wholesalesalesbackend.dto.SaleEntryDTO;
+import com.example.wholesalesalesbackend.dto.SaleEntryPage;
 import com.example.wholesalesalesbackend.dto.SaleEntryRequestDTO;
+import com.example.wholesalesalesbackend.dto.SaleFilter;
 import com.example.wholesalesalesbackend.dto.SaleUpdateRequest;
+import com.example.wholesalesalesbackend.exception.BadRequestException;
+import com.example.wholesalesalesbackend.model.Accessory;
 import com.example.wholesalesalesbackend.model.Client;
+import com.example.wholesalesalesbackend.model.Paise;
+import com.example.wholesalesalesbackend.model.SaleDailyRollupId;
 import com.example.wholesalesalesbackend.model.SaleEntry;
+import com.example.wholesalesalesbackend.repository.AccessoryRepository;
 import com.example.wholesalesalesbackend.repository.ClientRepository;
-import com.example.wholesalesalesbackend.repository.ProfitAndSaleProjection;
 import com.example.wholesalesalesbackend.repository.SaleEntryRepository;
-
-import jakarta.transaction.Transactional;
-
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 public class SaleEntryService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private SaleEntryRepository saleEntryRepository;
 
     @Autowired
     private ClientRepository clientRepository;
 
+    @Autowired
+    private SaleRollupService saleRollupService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ClientCache clientCache;
+
+    @Autowired
+    private AccessoryCache accessoryCache;
+
+    @Autowired
+    private AccessoryRepository accessoryRepository;
+
+    @Transactional
     public SaleEntry addSaleEntry(SaleEntryRequestDTO dto) {
 
-        Client client = clientRepository.findById(dto.getClientId())
-                .orElseThrow(() -> new RuntimeException("Client not found"));
+        Client client = requireClient(dto.getClientId());
+        SaleEntry saleEntry = buildSaleEntry(dto, client);
+        requireOpenMonth(saleEntry.getSaleDateTime());
 
-        boolean isReturn = Boolean.TRUE.equals(dto.getReturnFlag());
+        saleEntry = saleEntryRepository.save(saleEntry);
+        saleRollupService.add(saleEntry);
+        return saleEntry;
+    }
+
+    /**
+     * Inserts many entries in one transaction. Clients are resolved with a
+     * single query and rows go out as JDBC batches; items whose client does
+     * not exist or whose month is archived are reported as FAILED and the rest
+     * are still saved.
+     */
+    @Transactional
+    public List<BulkSaleEntryResult> addSaleEntries(List<SaleEntryRequestDTO> dtos) {
+        Set<Long> clientIds = new HashSet<>();
+        for (SaleEntryRequestDTO dto : dtos) {
+            if (dto.getClientId() != null) {
+                clientIds.add(dto.getClientId());
+            }
+        }
+
+        Map<Long, Client> clients = new HashMap<>();
+        for (Client client : clientRepository.findAllById(clientIds)) {
+            clients.put(client.getId(), client);
+        }
+
+        accessoryCache.resolveAll(dtos.stream().map(SaleEntryRequestDTO::getAccessoryName).toList());
+
+        List<BulkSaleEntryResult> results = new ArrayList<>(dtos.size());
+        List<SaleEntry> entries = new ArrayList<>(dtos.size());
+        Map<YearMonth, Boolean> archived = new HashMap<>();
+
+        for (int i = 0; i < dtos.size(); i++) {
+            SaleEntryRequestDTO dto = dtos.get(i);
+            Client client = clients.get(dto.getClientId());
+            if (client == null) {
+                results.add(new BulkSaleEntryResult(i, null, "FAILED", "Client not found: " + dto.getClientId()));
+                continue;
+            }
+            SaleEntry entry = buildSaleEntry(dto, client);
+            YearMonth month = YearMonth.from(entry.getSaleDateTime());
+            if (archived.computeIfAbsent(month, m -> saleEntryRepository.isArchived(m.atDay(1)))) {
+                results.add(new BulkSaleEntryResult(i, null, "FAILED", archivedMessage(month)));
+                continue;
+            }
+            entries.add(entry);
+            results.add(new BulkSaleEntryResult(i, null, "CREATED", null));
+        }
 
-        String accessoryName = Optional.ofNullable(dto.getAccessoryName()).orElse("UNKNOWN");
-        accessoryName = isReturn ? "RETURN -> " + accessoryName : "ADD -> " + accessoryName;
+        saleEntryRepository.saveAll(entries);
+        saleRollupService.addAll(entries);
 
-        Double totalPrice = Optional.ofNullable(dto.getTotalPrice()).orElse(0.0);
-        Double profit = Optional.ofNullable(dto.getProfit()).orElse(0.0);
+        // Ids are assigned from the pooled sequence on persist, before the batch is flushed
+        int next = 0;
+        for (BulkSaleEntryResult result : results) {
+            if ("CREATED".equals(result.getStatus())) {
+                result.setId(entries.get(next++).getId());
+            }
+        }
+        return results;
+    }
+
+    private SaleEntry buildSaleEntry(SaleEntryRequestDTO dto, Client client) {
+        boolean isReturn = Boolean.TRUE.equals(dto.getReturnFlag());
+
+        long totalPrice = Paise.of(dto.getTotalPrice());
+        long profit = Paise.of(dto.getProfit());
 
         if (isReturn) {
             totalPrice = -Math.abs(totalPrice);
@@ -59,194 +159,212 @@ public class SaleEntryService {
         LocalDateTime saleDateTime = Optional.ofNullable(dto.getSaleDateTime())
                 .orElse(LocalDateTime.now(indiaZone));
 
-        SaleEntry saleEntry = SaleEntry.builder()
-                .accessoryName(accessoryName)
+        return SaleEntry.builder()
+                .accessory(accessoryReference(dto.getAccessoryName()))
                 .quantity(Optional.ofNullable(dto.getQuantity()).orElse(1))
-                .totalPrice(totalPrice)
-                .profit(profit)
+                .totalPricePaise(totalPrice)
+                .profitPaise(profit)
                 .saleDateTime(saleDateTime)
                 .note(dto.getNote())
                 .returnFlag(isReturn)
                 .client(client)
                 .build();
-
-        return saleEntryRepository.save(saleEntry);
     }
 
-    public List<SaleEntry> getSalesByClientAndDateRange(Long clientId, LocalDateTime from, LocalDateTime to) {
-
-        ZoneId indiaZone = ZoneId.of("Asia/Kolkata");
-
-        // Convert inputs to IST (only if they are not null)
-        if (from != null) {
-            from = from.atZone(ZoneId.systemDefault())
-                    .withZoneSameInstant(indiaZone)
-                    .toLocalDateTime();
-        }
-        if (to != null) {
-            to = to.atZone(ZoneId.systemDefault())
-                    .withZoneSameInstant(indiaZone)
-                    .toLocalDateTime();
-        }
-
-        List<SaleEntry> entries = new ArrayList<>();
+    @Transactional(readOnly = true)
+    public List<SaleEntryDTO> getSalesEntryDTOByClientAndDateRange(Long clientId, LocalDateTime from,
+            LocalDateTime to, Boolean returnFlag, String accessory) {
+
+        SaleFilter filter = SaleFilter.builder()
+                .clientId(clientId)
+                .from(toIndiaTime(from))
+                .to(toIndiaTime(to))
+                .returnFlag(returnFlag)
+                .accessory(accessory)
+                .build();
 
+        List<SaleEntryDTO> dtos = saleEntryRepository.searchSaleDTOs(filter, null, 0);
         if (clientId != null) {
-            Client client = clientRepository.findById(clientId)
-                    .orElseThrow(() -> new RuntimeException("Client not found"));
-
-            if (from != null && to != null) {
-                entries = saleEntryRepository.findByClientAndSaleDateTimeBetweenOrderBySaleDateTimeDesc(client, from,
-                        to);
-            } else if (from != null) {
-                entries = saleEntryRepository.findByClientAndSaleDateTimeAfterOrderBySaleDateTimeDesc(client, from);
-            } else if (to != null) {
-                entries = saleEntryRepository.findByClientAndSaleDateTimeBeforeOrderBySaleDateTimeDesc(client, to);
-            } else {
-                entries = saleEntryRepository.findByClientOrderBySaleDateTimeDesc(client);
-            }
-        } else {
-            // All clients
-            if (from != null && to != null) {
-                entries = saleEntryRepository.findBySaleDateTimeBetweenOrderBySaleDateTimeDesc(from, to);
-            } else if (from != null) {
-                entries = saleEntryRepository.findBySaleDateTimeAfterOrderBySaleDateTimeDesc(from);
-            } else if (to != null) {
-                entries = saleEntryRepository.findBySaleDateTimeBeforeOrderBySaleDateTimeDesc(to);
-            } else {
-                entries = saleEntryRepository.findAllByOrderBySaleDateTimeDesc();
-            }
+            requireClientIfEmpty(clientId, dtos);
         }
-
-        return entries;
+        return dtos;
     }
 
-    public List<SaleEntryDTO> getSalesEntryDTOByClientAndDateRange(Long clientId, LocalDateTime from,
-            LocalDateTime to) {
-
-        ZoneId indiaZone = ZoneId.of("Asia/Kolkata");
+    @Transactional(readOnly = true)
+    public SaleEntryPage getSalesPage(Long clientId, LocalDateTime from, LocalDateTime to, Boolean returnFlag,
+            String accessory, String cursor, Integer size) {
 
-        // Convert incoming times to IST if they are not null
-        if (from != null) {
-            from = from.atZone(ZoneId.systemDefault())
-                    .withZoneSameInstant(indiaZone)
-                    .toLocalDateTime();
-        }
-        if (to != null) {
-            to = to.atZone(ZoneId.systemDefault())
-                    .withZoneSameInstant(indiaZone)
-                    .toLocalDateTime();
-        }
+        SaleFilter filter = SaleFilter.builder()
+                .clientId(clientId)
+                .from(toIndiaTime(from))
+                .to(toIndiaTime(to))
+                .returnFlag(returnFlag)
+                .accessory(accessory)
+                .build();
 
-        List<SaleEntry> entries = new ArrayList<>();
-        List<SaleEntryDTO> dtos = new ArrayList<>();
+        int pageSize = Math.min(Math.max(Optional.ofNullable(size).orElse(DEFAULT_PAGE_SIZE), 1), MAX_PAGE_SIZE);
 
-        if (clientId != null) {
-            Client client = clientRepository.findById(clientId)
-                    .orElseThrow(() -> new RuntimeException("Client not found"));
+        // Fetch one extra row to find out whether another page follows
+        List<SaleEntryDTO> entries = saleEntryRepository.searchSaleDTOs(filter, SaleCursor.decode(cursor),
+                pageSize + 1);
 
-            if (from != null && to != null) {
-                entries = saleEntryRepository.findByClientAndSaleDateTimeBetweenOrderBySaleDateTimeDesc(client, from,
-                        to);
-            } else if (from != null) {
-                entries = saleEntryRepository.findByClientAndSaleDateTimeAfterOrderBySaleDateTimeDesc(client, from);
-            } else if (to != null) {
-                entries = saleEntryRepository.findByClientAndSaleDateTimeBeforeOrderBySaleDateTimeDesc(client, to);
-            } else {
-                entries = saleEntryRepository.findByClientOrderBySaleDateTimeDesc(client);
-            }
-
-        } else {
-            // For all clients
-            if (from != null && to != null) {
-                entries = saleEntryRepository.findBySaleDateTimeBetweenOrderBySaleDateTimeDesc(from, to);
-            } else if (from != null) {
-                entries = saleEntryRepository.findBySaleDateTimeAfterOrderBySaleDateTimeDesc(from);
-            } else if (to != null) {
-                entries = saleEntryRepository.findBySaleDateTimeBeforeOrderBySaleDateTimeDesc(to);
-            } else {
-                entries = saleEntryRepository.findAllByOrderBySaleDateTimeDesc();
-            }
+        String next = null;
+        if (entries.size() > pageSize) {
+            entries = entries.subList(0, pageSize);
+            SaleEntryDTO last = entries.get(pageSize - 1);
+            next = new SaleCursor(last.getSaleDateTime(), last.getId()).encode();
         }
 
-        for (SaleEntry sale : entries) {
+        return new SaleEntryPage(entries, next);
+    }
+
+    /**
+     * Writes matching sales to out as newline-delimited JSON while rows are
+     * still being read from the database cursor, so the whole result set is
+     * never held in memory.
+     */
+    @Transactional(readOnly = true)
+    public void exportSales(Long clientId, LocalDateTime from, LocalDateTime to, OutputStream out)
+            throws IOException {
+
+        SaleFilter filter = SaleFilter.builder()
+                .clientId(clientId)
+                .from(toIndiaTime(from))
+                .to(toIndiaTime(to))
+                .build();
 
-            SaleEntryDTO dto = new SaleEntryDTO();
-            dto.setId(sale.getId());
-            dto.setProfit(sale.getProfit());
-            dto.setQuantity(sale.getQuantity());
-            dto.setClientName(sale.getClient().getName());
-            dto.setSaleDateTime(sale.getSaleDateTime());
-            dto.setTotalPrice(sale.getTotalPrice());
-            dto.setReturnFlag(sale.isReturnFlag());
-            dto.setAccessoryName(sale.getAccessoryName());
-            dto.setNote(sale.getNote());
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        try (Stream<SaleEntryDTO> rows = saleEntryRepository.streamSaleDTOs(filter);
+                SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(generator)) {
+
+            rows.forEach(row -> {
+                try {
+                    writer.write(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
 
-            dtos.add(dto);
+        generator.writeRaw('\n');
+        generator.flush();
+    }
 
+    // Request times are read in the server zone and stored in IST
+    private static LocalDateTime toIndiaTime(LocalDateTime time) {
+        if (time == null) {
+            return null;
         }
+        return time.atZone(ZoneId.systemDefault())
+                .withZoneSameInstant(ZoneId.of("Asia/Kolkata"))
+                .toLocalDateTime();
+    }
 
-        return dtos;
+    // Catalog id from the cache; the returned reference is not loaded from the database
+    private Accessory accessoryReference(String accessoryName) {
+        return accessoryRepository.getReferenceById(accessoryCache.idFor(accessoryName));
+    }
 
+    private SaleEntryDTO toDTO(SaleEntry sale) {
+        SaleEntryDTO dto = new SaleEntryDTO();
+        dto.setId(sale.getId());
+        dto.setProfit(sale.getProfit());
+        dto.setQuantity(sale.getQuantity());
+        dto.setClientName(clientCache.findById(sale.getClient().getId())
+                .map(ClientDTO::getName)
+                .orElse(null));
+        dto.setSaleDateTime(sale.getSaleDateTime());
+        dto.setTotalPrice(sale.getTotalPrice());
+        dto.setReturnFlag(sale.isReturnFlag());
+        dto.setNote(sale.getNote());
+        dto.setAccessoryName(sale.getAccessoryName());
+        return dto;
     }
 
+    @Transactional
     public SaleEntry updateProfit(SaleAttributeUpdateDTO dto) {
         SaleEntry entry = saleEntryRepository.findById(dto.getSaleEntryId())
                 .orElseThrow(() -> new RuntimeException("SaleEntry not found with id: " + dto.getSaleEntryId()));
 
-        entry.setProfit(dto.getProfit());
-        entry.setAccessoryName(dto.getAccessory());
-        entry.setTotalPrice(dto.getTotalPrice());
+        saleRollupService.remove(entry);
 
-        return saleEntryRepository.save(entry);
-    }
+        entry.setProfitPaise(Paise.of(dto.getProfit()));
+        entry.setAccessory(accessoryReference(dto.getAccessory()));
+        entry.setTotalPricePaise(Paise.of(dto.getTotalPrice()));
 
-    public List<SaleEntry> getSalesEntryByClient(Long clientId) {
-        Client client = clientRepository.findById(clientId)
-                .orElseThrow(() -> new RuntimeException("Client not found"));
-        return saleEntryRepository.findByClientOrderBySaleDateTimeDesc(client);
+        entry = saleEntryRepository.save(entry);
+        saleRollupService.add(entry);
+        return entry;
     }
 
+    @Transactional(readOnly = true)
     public List<SaleEntryDTO> getSalesEntryDTOByClient(Long clientId) {
-        Client client = clientRepository.findById(clientId)
-                .orElseThrow(() -> new RuntimeException("Client not found"));
-
-        List<SaleEntry> entries = saleEntryRepository.findByClientOrderBySaleDateTimeDesc(client);
-
-        List<SaleEntryDTO> dtos = new ArrayList<>();
-        for (SaleEntry sale : entries) {
+        List<SaleEntryDTO> dtos = saleEntryRepository.searchSaleDTOs(SaleFilter.builder().clientId(clientId).build(),
+                null, 0);
+        requireClientIfEmpty(clientId, dtos);
+        return dtos;
+    }
 
-            SaleEntryDTO dto = new SaleEntryDTO();
-            dto.setId(sale.getId());
-            dto.setProfit(sale.getProfit());
-            dto.setQuantity(sale.getQuantity());
-            dto.setClientName(sale.getClient().getName());
-            dto.setSaleDateTime(sale.getSaleDateTime());
-            dto.setTotalPrice(sale.getTotalPrice());
-            dto.setReturnFlag(sale.isReturnFlag());
-            dto.setNote(sale.getNote());
-            dto.setAccessoryName(sale.getAccessoryName());
+    // Rows carry the client already, so existence is only worth checking when none came back
+    private void requireClientIfEmpty(Long clientId, List<SaleEntryDTO> dtos) {
+        if (dtos.isEmpty() && clientCache.findById(clientId).isEmpty()) {
+            throw new RuntimeException("Client not found");
+        }
+    }
 
-            dtos.add(dto);
+    // Existence comes from the client cache; the returned reference is not loaded from the database
+    private Client requireClient(Long clientId) {
+        ClientDTO client = clientCache.findById(clientId)
+                .orElseThrow(() -> new RuntimeException("Client not found"));
+        return clientRepository.getReferenceById(client.getId());
+    }
 
+    // A detached month's partition rejects every row; say why instead of failing on its CHECK
+    private void requireOpenMonth(LocalDateTime saleDateTime) {
+        if (saleDateTime == null) {
+            return;
+        }
+        YearMonth month = YearMonth.from(saleDateTime);
+        if (saleEntryRepository.isArchived(month.atDay(1))) {
+            throw new BadRequestException(archivedMessage(month));
         }
+    }
 
-        return dtos;
+    private static String archivedMessage(YearMonth month) {
+        return "Sales for " + month + " are archived and can no longer be added or moved there";
     }
 
     @Transactional
     public int updateSalesByClient(Long clientId, Long saleEntryId, SaleUpdateRequest saleUpdateRequest) {
-        Client client = clientRepository.findById(clientId)
-                .orElseThrow(() -> new RuntimeException("Client not found"));
+        Client client = requireClient(clientId);
 
         String newAccessoryName = saleUpdateRequest.getAccessoryName();
         LocalDateTime now = saleUpdateRequest.getSaleDateTime();
-        Double newTotalPrice = saleUpdateRequest.getTotalPrice();
+        requireOpenMonth(now);
+        long newTotalPrice = Paise.of(saleUpdateRequest.getTotalPrice());
+
+        LocalDate oldDay = saleEntryRepository.findById(saleEntryId)
+                .filter(entry -> entry.getSaleDateTime() != null)
+                .map(SaleRollupService::dayOf)
+                .orElse(null);
 
-        return saleEntryRepository.updateSalesByClient(newAccessoryName, now, newTotalPrice, client.getId(),
-                saleEntryId);
+        int updated = saleEntryRepository.updateSalesByClient(accessoryCache.idFor(newAccessoryName), now,
+                newTotalPrice, client.getId(), saleEntryId);
+
+        if (updated > 0) {
+            saleRollupService.refresh(client.getId(), oldDay);
+            if (now != null && !now.toLocalDate().equals(oldDay)) {
+                saleRollupService.refresh(client.getId(), now.toLocalDate());
+            }
+        }
+        return updated;
     }
 
+    @Transactional(readOnly = true)
     public List<SaleEntry> getSalesByDateRange(LocalDateTime from, LocalDateTime to) {
         ZoneId indiaZone = ZoneId.of("Asia/Kolkata");
 
@@ -264,56 +382,95 @@ public class SaleEntryService {
         return saleEntryRepository.findBySaleDateTimeBetweenOrderBySaleDateTimeDesc(from, to);
     }
 
-    public List<SaleEntry> getAllSales() {
-        return saleEntryRepository.findAllByOrderBySaleDateTimeDesc();
+    @Transactional(readOnly = true)
+    public List<SaleEntryDTO> getAllSales() {
+        return saleEntryRepository.searchSaleDTOs(new SaleFilter(), null, 0);
     }
 
+    @Transactional
     public SaleEntryDTO updateSaleEntry(Long id, SaleEntryDTO updatedEntry) {
         SaleEntry existing = saleEntryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("SaleEntry not found"));
 
-        existing
-                .setAccessoryName(
-                        Boolean.TRUE.equals(updatedEntry.getReturnFlag())
-                                ? "RETURN -> " + updatedEntry.getAccessoryName()
-                                : "ADD -> " + updatedEntry.getAccessoryName());
+        saleRollupService.remove(existing);
+
+        existing.setAccessory(accessoryReference(updatedEntry.getAccessoryName()));
         existing.setQuantity(updatedEntry.getQuantity());
-        existing.setTotalPrice(updatedEntry.getTotalPrice());
+        existing.setTotalPricePaise(Paise.of(updatedEntry.getTotalPrice()));
         existing.setReturnFlag(updatedEntry.getReturnFlag());
-        existing.setSaleDateTime(updatedEntry.getSaleDateTime());
-        existing.setProfit(updatedEntry.getProfit());
+        // sale_date_time is the partition key and cannot be cleared
+        if (updatedEntry.getSaleDateTime() != null) {
+            requireOpenMonth(updatedEntry.getSaleDateTime());
+            existing.setSaleDateTime(updatedEntry.getSaleDateTime());
+        }
+        existing.setProfitPaise(Paise.of(updatedEntry.getProfit()));
         existing.setNote(updatedEntry.getNote());
-        existing.setAccessoryName(updatedEntry.getAccessoryName());
 
         if (updatedEntry.getClientName() != null) {
-            Client client = clientRepository.findByName(updatedEntry.getClientName())
+            ClientDTO client = clientCache.findByName(updatedEntry.getClientName())
                     .orElseThrow(() -> new RuntimeException("Client not found"));
-            existing.setClient(client);
+            existing.setClient(clientRepository.getReferenceById(client.getId()));
         }
 
         existing = saleEntryRepository.save(existing);
+        saleRollupService.add(existing);
 
-        SaleEntryDTO dto = new SaleEntryDTO();
-        dto.setId(id);
-        dto.setProfit(existing.getProfit());
-        dto.setQuantity(existing.getQuantity());
-        dto.setClientName(existing.getClient().getName());
-        dto.setSaleDateTime(existing.getSaleDateTime());
-        dto.setTotalPrice(existing.getTotalPrice());
-        dto.setReturnFlag(existing.isReturnFlag());
-        dto.setNote(existing.getNote());
-        dto.setAccessoryName(existing.getAccessoryName());
-
-        return dto;
+        return toDTO(existing);
     }
 
+    @Transactional
     public String deleteSaleEntry(Long id) {
         SaleEntry existing = saleEntryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("SaleEntry not found"));
+        saleRollupService.remove(existing);
         saleEntryRepository.delete(existing);
         return "Deleted !!!";
     }
 
+    /**
+     * Applies the same change to every matching sale as one UPDATE statement.
+     * The (client, day) pairs are read first so their rollup rows can be
+     * recomputed afterwards.
+     */
+    @Transactional
+    public BulkOperationResult bulkUpdate(BulkSaleUpdateRequest request) {
+        SaleFilter filter = toIndiaTime(request.getFilter());
+
+        List<SaleDailyRollupId> days = saleEntryRepository.findSaleDays(filter);
+        int affected = saleEntryRepository.updateMatching(filter, request);
+        if (affected > 0) {
+            saleRollupService.refreshAll(days);
+        }
+        return new BulkOperationResult(affected);
+    }
+
+    @Transactional
+    public BulkOperationResult bulkDelete(SaleFilter filter) {
+        filter = toIndiaTime(filter);
+
+        List<SaleDailyRollupId> days = saleEntryRepository.findSaleDays(filter);
+        int affected = saleEntryRepository.deleteMatching(filter);
+        if (affected > 0) {
+            saleRollupService.refreshAll(days);
+        }
+        return new BulkOperationResult(affected);
+    }
+
+    private SaleFilter toIndiaTime(SaleFilter filter) {
+        if (filter == null || filter.isEmpty()) {
+            throw new RuntimeException("Bulk operations need ids or a filter");
+        }
+        return SaleFilter.builder()
+                .ids(filter.getIds())
+                .clientId(filter.getClientId())
+                .from(toIndiaTime(filter.getFrom()))
+                .to(toIndiaTime(filter.getTo()))
+                .returnFlag(filter.getReturnFlag())
+                .accessory(filter.getAccessory())
+                .build();
+    }
+
+    @Transactional(readOnly = true)
     public ProfitAndSale getTotalProfitByDateRange(LocalDateTime from, LocalDateTime to, Long days, Long clientId) {
 
         // If 'days' is provided but no from/to, calculate date range
@@ -324,24 +481,10 @@ public class SaleEntryService {
 
         }
 
-        ProfitAndSaleProjection result;
-
-        // If clientId is provided, use client-specific repository method
-        if (clientId != null) {
-            result = saleEntryRepository.getTotalPriceAndProfitBetweenDatesByClient(from,
-                    to, clientId);
-        } else {
-            result = saleEntryRepository.getTotalPriceAndProfitBetweenDates(from, to);
-        }
-
-        // Handle null projection result
-        if (result == null) {
-            return new ProfitAndSale(0.0, 0.0);
-        }
-
-        return new ProfitAndSale(result.getSale(), result.getProfit());
+        return saleRollupService.getTotals(clientId, from, to);
     }
 
+    @Transactional(readOnly = true)
     public ProfitAndSale getTotalSaleDateRange(LocalDateTime from, LocalDateTime to, Long clientId) {
         LocalDate today = LocalDate.now(ZoneId.of("Asia/Kolkata"));
       
@@ -353,31 +496,13 @@ public class SaleEntryService {
            to = today.atTime(LocalTime.MAX); // today end of day
         }
 
-        ProfitAndSaleProjection result = null;
-
         boolean isDateRangeProvided = (from != null && to != null);
-        boolean isClientProvided = (clientId != null);
-
-        if (isDateRangeProvided && isClientProvided) {
-            // Case 1: Both dates and client ID are provided
-            result = saleEntryRepository.getTotalPriceAndProfitBetweenDatesByClient(from,
-                    to, clientId);
-        } else if (isDateRangeProvided) {
-            // Case 2: Only dates provided
-            result = saleEntryRepository.getTotalPriceAndProfitBetweenDates(from, to);
-        } else if (isClientProvided) {
-            // Case 3: Only client ID provided
-            result = saleEntryRepository.getTotalPriceAndProfitByClient(clientId);
-        } else {
-            // Case 4: No filters
-            result = saleEntryRepository.getTotalPriceAndProfit();
-        }
 
-        if (result == null) {
-            return new ProfitAndSale(0.0, 0.0);
+        // Without a complete range the totals cover the client's (or the shop's) whole history
+        if (!isDateRangeProvided) {
+            return saleRollupService.getTotals(clientId, null, null);
         }
-
-        return new ProfitAndSale(result.getSale(), result.getProfit());
+        return saleRollupService.getTotals(clientId, from, to);
     }
 
 }
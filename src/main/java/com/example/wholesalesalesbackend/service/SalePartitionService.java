@@ -0,0 +1,59 @@
+package com.example.wholesalesalesbackend.service;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.wholesalesalesbackend.repository.SaleEntryRepository;
+
+/**
+ * Keeps monthly sale_entry partitions in place ahead of time and detaches old
+ * ones for archival. Rows for a month without a partition go to
+ * sale_entry_default and are moved out when the month's partition is created.
+ */
+@Service
+public class SalePartitionService {
+
+    @Autowired
+    private SaleEntryRepository saleEntryRepository;
+
+    @Value("${sales.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    // On startup and daily just after midnight IST: this month and the next few
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 15 0 * * *", zone = "Asia/Kolkata")
+    @Transactional
+    public void createUpcomingPartitions() {
+        YearMonth month = YearMonth.now(ZoneId.of("Asia/Kolkata"));
+        for (int i = 0; i <= monthsAhead; i++) {
+            saleEntryRepository.createPartition(month.plusMonths(i).atDay(1));
+        }
+    }
+
+    /**
+     * Detaches one month from sale_entry and returns the standalone table
+     * holding its rows, to be dumped and dropped. The month is recorded in
+     * sale_entry_archive and closed to new entries; its rollup rows stay as its
+     * record, so balances and totals still include it and rollup rebuilds
+     * leave it alone.
+     */
+    @Transactional
+    public String detachMonth(YearMonth month) {
+        if (!month.isBefore(YearMonth.now(ZoneId.of("Asia/Kolkata")))) {
+            throw new RuntimeException("Only past months can be detached");
+        }
+        String table = saleEntryRepository.detachPartition(month.atDay(1));
+        if (table == null) {
+            throw new RuntimeException("No partition for " + month);
+        }
+        return table;
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.wholesalesalesbackend.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.wholesalesalesbackend.dto.ProfitAndSale;
+import com.example.wholesalesalesbackend.dto.RollupRebuildResult;
+import com.example.wholesalesalesbackend.model.AccessoryDailyRollupId;
+import com.example.wholesalesalesbackend.model.Paise;
+import com.example.wholesalesalesbackend.model.SaleDailyRollupId;
+import com.example.wholesalesalesbackend.model.SaleEntry;
+import com.example.wholesalesalesbackend.repository.AccessoryDailyRollupRepository;
+import com.example.wholesalesalesbackend.repository.ProfitAndSaleProjection;
+import com.example.wholesalesalesbackend.repository.SaleDailyRollupRepository;
+import com.example.wholesalesalesbackend.repository.SaleEntryRepository;
+
+/**
+ * Keeps sale_daily_rollup and accessory_daily_rollup in step with sale_entry
+ * and answers sale / profit totals. Callers must be inside the transaction
+ * that writes the sale.
+ */
+@Service
+public class SaleRollupService {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(1970, 1, 1);
+    private static final LocalDate LAST_DAY = LocalDate.of(9999, 12, 31);
+
+    // Last instant sale_date_time (timestamp(6)) can hold on a day; only a 'to' from here on covers the whole day
+    private static final LocalTime END_OF_DAY = LocalTime.of(23, 59, 59, 999_999_000);
+
+    @Autowired
+    private SaleDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private AccessoryDailyRollupRepository accessoryRollupRepository;
+
+    @Autowired
+    private SaleEntryRepository saleEntryRepository;
+
+    @Autowired
+    private ClientBalanceService clientBalanceService;
+
+    public void add(SaleEntry entry) {
+        apply(entry, 1);
+    }
+
+    public void remove(SaleEntry entry) {
+        apply(entry, -1);
+    }
+
+    /**
+     * Adds many new entries with one upsert per (client, day) instead of one
+     * per entry.
+     */
+    public void addAll(List<SaleEntry> entries) {
+        Map<SaleDailyRollupId, long[]> deltas = new LinkedHashMap<>();
+        Map<AccessoryDailyRollupId, long[]> accessoryDeltas = new LinkedHashMap<>();
+        for (SaleEntry entry : entries) {
+            if (entry.getClient() == null || entry.getSaleDateTime() == null) {
+                continue;
+            }
+            long sale = entry.getTotalPricePaise();
+            long profit = entry.getProfitPaise();
+
+            long[] delta = deltas.computeIfAbsent(new SaleDailyRollupId(entry.getClient().getId(), dayOf(entry)),
+                    key -> new long[6]);
+            delta[0] += sale;
+            delta[1] += profit;
+            delta[2]++;
+            if (entry.isReturnFlag()) {
+                delta[3] += sale;
+                delta[4] += profit;
+                delta[5]++;
+            }
+
+            long[] accessoryDelta = accessoryDeltas.computeIfAbsent(
+                    new AccessoryDailyRollupId(entry.getClient().getId(), dayOf(entry), accessoryIdOf(entry)),
+                    key -> new long[4]);
+            accessoryDelta[0] += quantityOf(entry);
+            accessoryDelta[1] += sale;
+            accessoryDelta[2] += profit;
+            accessoryDelta[3]++;
+        }
+
+        // Clients in id order, so two bulk inserts cannot wait on each other's balance locks
+        deltas.keySet().stream().map(SaleDailyRollupId::getClientId).distinct().sorted()
+                .forEach(clientBalanceService::lockClient);
+        deltas.forEach((key, delta) -> {
+            rollupRepository.applyDelta(key.getClientId(), key.getSaleDay(), delta[0], delta[1], delta[2],
+                    delta[3], delta[4], delta[5]);
+            clientBalanceService.invalidateFrom(key.getClientId(), key.getSaleDay());
+        });
+        accessoryDeltas.forEach((key, delta) -> accessoryRollupRepository.applyDelta(key.getClientId(),
+                key.getSaleDay(), key.getAccessoryId(), delta[0], delta[1], delta[2], delta[3]));
+    }
+
+    private void apply(SaleEntry entry, int sign) {
+        if (entry.getClient() == null || entry.getSaleDateTime() == null) {
+            return;
+        }
+        long sale = entry.getTotalPricePaise();
+        long profit = entry.getProfitPaise();
+        int returnSign = entry.isReturnFlag() ? sign : 0;
+
+        rollupRepository.applyDelta(entry.getClient().getId(), dayOf(entry), sign * sale, sign * profit, sign,
+                returnSign * sale, returnSign * profit, returnSign);
+        accessoryRollupRepository.applyDelta(entry.getClient().getId(), dayOf(entry), accessoryIdOf(entry),
+                sign * quantityOf(entry), sign * sale, sign * profit, sign);
+        clientBalanceService.invalidateFrom(entry.getClient().getId(), dayOf(entry));
+    }
+
+    public void refresh(Long clientId, LocalDate saleDay) {
+        if (clientId != null && saleDay != null) {
+            refreshRows(clientId, saleDay);
+            clientBalanceService.invalidateFrom(clientId, saleDay);
+        }
+    }
+
+    /**
+     * Recomputes each (client, day) after a set-based statement. Balance
+     * snapshots are dropped once per client from its earliest touched day.
+     */
+    public void refreshAll(List<SaleDailyRollupId> days) {
+        Map<Long, LocalDate> earliest = new LinkedHashMap<>();
+        days.stream().map(SaleDailyRollupId::getClientId).distinct().sorted()
+                .forEach(clientBalanceService::lockClient);
+        for (SaleDailyRollupId key : days) {
+            refreshRows(key.getClientId(), key.getSaleDay());
+            earliest.merge(key.getClientId(), key.getSaleDay(), (a, b) -> a.isBefore(b) ? a : b);
+        }
+        earliest.forEach(clientBalanceService::invalidateFrom);
+    }
+
+    private void refreshRows(Long clientId, LocalDate saleDay) {
+        rollupRepository.refresh(clientId, saleDay);
+        accessoryRollupRepository.deleteDay(clientId, saleDay);
+        accessoryRollupRepository.insertDay(clientId, saleDay);
+    }
+
+    // Id of the reference without loading the catalog row
+    private static Integer accessoryIdOf(SaleEntry entry) {
+        return entry.getAccessory() != null ? entry.getAccessory().getId() : null;
+    }
+
+    // Returns take stock back, so they count against the quantity sold
+    private static long quantityOf(SaleEntry entry) {
+        long quantity = Optional.ofNullable(entry.getQuantity()).orElse(0);
+        return entry.isReturnFlag() ? -quantity : quantity;
+    }
+
+    // Same value as the generated sale_day column, available before the row is re-read
+    public static LocalDate dayOf(SaleEntry entry) {
+        return entry.getSaleDateTime().toLocalDate();
+    }
+
+    @Transactional
+    public RollupRebuildResult rebuild() {
+        // No snapshot may be computed from the rollup while it is replaced
+        clientBalanceService.lockAllClients();
+        long mismatched = rollupRepository.countMismatches() + accessoryRollupRepository.countMismatches();
+        rollupRepository.deleteUnarchivedRows();
+        long rows = rollupRepository.insertFromSaleEntries();
+        accessoryRollupRepository.deleteUnarchivedRows();
+        accessoryRollupRepository.insertFromSaleEntries();
+        clientBalanceService.invalidateAll();
+        return new RollupRebuildResult(mismatched, rows);
+    }
+
+    /**
+     * Sale and profit between two IST times (either may be null for an open
+     * end). Whole days come from the rollup; a partial first or last day is
+     * summed from sale_entry.
+     */
+    public ProfitAndSale getTotals(Long clientId, LocalDateTime from, LocalDateTime to) {
+        LocalDate firstFullDay = FIRST_DAY;
+        LocalDate lastFullDay = LAST_DAY;
+
+        if (from != null) {
+            firstFullDay = from.toLocalTime().equals(LocalTime.MIDNIGHT)
+                    ? from.toLocalDate()
+                    : from.toLocalDate().plusDays(1);
+        }
+        if (to != null) {
+            lastFullDay = !to.toLocalTime().isBefore(END_OF_DAY)
+                    ? to.toLocalDate()
+                    : to.toLocalDate().minusDays(1);
+        }
+
+        if (firstFullDay.isAfter(lastFullDay)) {
+            // Range does not cover a single whole day
+            return toProfitAndSale(sumRaw(clientId, from, to));
+        }
+
+        // Sale and profit in paise, converted to rupees once at the end
+        long[] totals = { 0L, 0L };
+        add(totals, clientId != null
+                ? rollupRepository.sumBetweenDaysByClient(firstFullDay, lastFullDay, clientId)
+                : rollupRepository.sumBetweenDays(firstFullDay, lastFullDay));
+
+        if (from != null && from.toLocalDate().isBefore(firstFullDay)) {
+            add(totals, sumRaw(clientId, from, firstFullDay.atStartOfDay().minus(1, ChronoUnit.MICROS)));
+        }
+        if (to != null && to.toLocalDate().isAfter(lastFullDay)) {
+            add(totals, sumRaw(clientId, lastFullDay.plusDays(1).atStartOfDay(), to));
+        }
+        return toProfitAndSale(totals);
+    }
+
+    private ProfitAndSaleProjection sumRaw(Long clientId, LocalDateTime from, LocalDateTime to) {
+        return clientId != null
+                ? saleEntryRepository.getTotalPriceAndProfitBetweenDatesByClient(from, to, clientId)
+                : saleEntryRepository.getTotalPriceAndProfitBetweenDates(from, to);
+    }
+
+    private static ProfitAndSale toProfitAndSale(ProfitAndSaleProjection result) {
+        long[] totals = { 0L, 0L };
+        add(totals, result);
+        return toProfitAndSale(totals);
+    }
+
+    private static ProfitAndSale toProfitAndSale(long[] totals) {
+        return new ProfitAndSale(Paise.toRupees(totals[0]), Paise.toRupees(totals[1]));
+    }
+
+    private static void add(long[] totals, ProfitAndSaleProjection part) {
+        if (part != null) {
+            totals[0] += Optional.ofNullable(part.getSale()).orElse(0L);
+            totals[1] += Optional.ofNullable(part.getProfit()).orElse(0L);
+        }
+    }
+
+}
@@ -0,0 +1,196 @@
+package com.example.wholesalesalesbackend.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.wholesalesalesbackend.dto.SalesSeriesBucket;
+import com.example.wholesalesalesbackend.dto.TopAccessoryEntry;
+import com.example.wholesalesalesbackend.dto.TopClientEntry;
+import com.example.wholesalesalesbackend.model.Paise;
+import com.example.wholesalesalesbackend.repository.AccessoryDailyRollupRepository;
+import com.example.wholesalesalesbackend.repository.SaleDailyRollupRepository;
+import com.example.wholesalesalesbackend.repository.SalesSeriesProjection;
+import com.example.wholesalesalesbackend.repository.TopAccessoryProjection;
+import com.example.wholesalesalesbackend.repository.TopClientProjection;
+
+/**
+ * Chart and leaderboard data for the dashboard, read from the daily rollups.
+ */
+@Service
+public class SalesAnalyticsService {
+
+    // Keeps a mistyped range from producing millions of empty buckets
+    private static final int MAX_BUCKETS = 3660;
+
+    private static final int MAX_LEADERBOARD = 100;
+
+    @Autowired
+    private SaleDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private AccessoryDailyRollupRepository accessoryRollupRepository;
+
+    /**
+     * Returns one bucket per day, week or month between from and to (IST
+     * days, both inclusive), including empty ones. Without a range the last
+     * 30 days, 12 weeks or 12 months up to today are used. A first bucket cut
+     * short by from is labelled with from rather than its Monday or 1st.
+     */
+    @Transactional(readOnly = true)
+    public List<SalesSeriesBucket> getSeries(String granularity, LocalDate from, LocalDate to, Long clientId) {
+        ChronoUnit unit = toUnit(granularity);
+
+        if (to == null) {
+            to = LocalDate.now(ZoneId.of("Asia/Kolkata"));
+        }
+        if (from == null) {
+            from = bucketStart(to, unit).minus(unit == ChronoUnit.DAYS ? 29 : 11, unit);
+        }
+        if (from.isAfter(to)) {
+            throw new RuntimeException("'from' must not be after 'to'");
+        }
+        LocalDate first = bucketStart(from, unit);
+        if (unit.between(first, to) >= MAX_BUCKETS) {
+            throw new RuntimeException("Range too large for granularity " + granularity);
+        }
+
+        Map<LocalDate, SalesSeriesProjection> rows = new HashMap<>();
+        for (SalesSeriesProjection row : rollupRepository.findSeries(granularity.toLowerCase(), from, to, clientId)) {
+            rows.put(row.getBucket(), row);
+        }
+
+        List<SalesSeriesBucket> series = new ArrayList<>();
+        for (LocalDate bucket = first; !bucket.isAfter(to); bucket = bucket.plus(1, unit)) {
+            series.add(toBucket(bucket.isBefore(from) ? from : bucket, rows.get(bucket)));
+        }
+        return series;
+    }
+
+    /**
+     * Clients ranked by net revenue or profit over from..to (IST days, both
+     * inclusive; the last 30 days when omitted).
+     */
+    @Transactional(readOnly = true)
+    public List<TopClientEntry> getTopClients(LocalDate from, LocalDate to, String by, int limit) {
+        String metric = requireMetric(by, "revenue", "profit");
+        LocalDate[] range = leaderboardRange(from, to);
+
+        List<TopClientEntry> leaders = new ArrayList<>();
+        for (TopClientProjection row : rollupRepository.findTopClients(range[0], range[1], metric, toLimit(limit))) {
+            leaders.add(new TopClientEntry(row.getClientId(), row.getClientName(), rupees(row.getRevenue()),
+                    rupees(row.getProfit()), row.getEntryCount()));
+        }
+        return leaders;
+    }
+
+    /**
+     * Products ranked by net quantity or revenue over from..to, across all
+     * clients or for one.
+     */
+    @Transactional(readOnly = true)
+    public List<TopAccessoryEntry> getTopAccessories(LocalDate from, LocalDate to, Long clientId, String by,
+            int limit) {
+        String metric = requireMetric(by, "quantity", "revenue");
+        LocalDate[] range = leaderboardRange(from, to);
+
+        List<TopAccessoryEntry> leaders = new ArrayList<>();
+        for (TopAccessoryProjection row : accessoryRollupRepository.findTopAccessories(range[0], range[1], clientId,
+                metric, toLimit(limit))) {
+            leaders.add(new TopAccessoryEntry(row.getAccessoryId(), row.getAccessoryName(),
+                    orZero(row.getQuantity()), rupees(row.getRevenue()),
+                    rupees(row.getProfit())));
+        }
+        return leaders;
+    }
+
+    private static String requireMetric(String by, String... allowed) {
+        for (String metric : allowed) {
+            if (metric.equalsIgnoreCase(by)) {
+                return metric;
+            }
+        }
+        throw new RuntimeException("'by' must be one of " + String.join(", ", allowed));
+    }
+
+    private static LocalDate[] leaderboardRange(LocalDate from, LocalDate to) {
+        if (to == null) {
+            to = LocalDate.now(ZoneId.of("Asia/Kolkata"));
+        }
+        if (from == null) {
+            from = to.minusDays(29);
+        }
+        if (from.isAfter(to)) {
+            throw new RuntimeException("'from' must not be after 'to'");
+        }
+        return new LocalDate[] { from, to };
+    }
+
+    private static int toLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LEADERBOARD));
+    }
+
+    private static ChronoUnit toUnit(String granularity) {
+        if (granularity != null) {
+            switch (granularity.toLowerCase()) {
+                case "day":
+                    return ChronoUnit.DAYS;
+                case "week":
+                    return ChronoUnit.WEEKS;
+                case "month":
+                    return ChronoUnit.MONTHS;
+                default:
+                    break;
+            }
+        }
+        throw new RuntimeException("Granularity must be day, week or month");
+    }
+
+    // Matches date_trunc: weeks start on Monday, months on the 1st
+    private static LocalDate bucketStart(LocalDate day, ChronoUnit unit) {
+        if (unit == ChronoUnit.WEEKS) {
+            return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+        if (unit == ChronoUnit.MONTHS) {
+            return day.withDayOfMonth(1);
+        }
+        return day;
+    }
+
+    private static SalesSeriesBucket toBucket(LocalDate bucket, SalesSeriesProjection row) {
+        if (row == null) {
+            return new SalesSeriesBucket(bucket, 0.0, 0.0, 0L, 0.0, 0.0, 0L, 0.0, 0.0);
+        }
+        // Paise until the final conversion, so sales + returns add up to the net exactly
+        long netTotal = orZero(row.getNetTotal());
+        long netProfit = orZero(row.getNetProfit());
+        long returnTotal = orZero(row.getReturnTotal());
+        long returnProfit = orZero(row.getReturnProfit());
+        long entryCount = orZero(row.getEntryCount());
+        long returnCount = orZero(row.getReturnCount());
+
+        return new SalesSeriesBucket(bucket,
+                Paise.toRupees(netTotal - returnTotal), Paise.toRupees(netProfit - returnProfit),
+                entryCount - returnCount,
+                Paise.toRupees(returnTotal), Paise.toRupees(returnProfit), returnCount,
+                Paise.toRupees(netTotal), Paise.toRupees(netProfit));
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    private static double rupees(Long paise) {
+        return Paise.toRupees(orZero(paise));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.wholesalesalesbackend.service;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.wholesalesalesbackend.dto.SaleReportRow;
+import com.example.wholesalesalesbackend.model.Paise;
+import com.example.wholesalesalesbackend.repository.SaleEntryRepository;
+
+/**
+ * Feeds PdfService from a database cursor so a report never holds its rows
+ * in memory.
+ */
+@Service
+public class SalesReportService {
+
+    @Autowired
+    private SaleEntryRepository saleEntryRepository;
+
+    @Autowired
+    private PdfService pdfService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private ClientBalanceService clientBalanceService;
+
+    public String clientName(Long clientId) {
+        return clientId != null ? clientService.getClientDTOById(clientId).getName() : "All_Clients";
+    }
+
+    // Pending amount in rupees before the first day of the report
+    public Double openingBalance(Long clientId, LocalDate from) {
+        return clientId != null
+                ? clientBalanceService.getOpeningBalance(clientId, from)
+                : Paise.toRupees(saleEntryRepository.getOldBalance(from));
+    }
+
+    // clientId null means every client
+    @Transactional(readOnly = true)
+    public void writeReport(OutputStream out, Long clientId, String clientName, LocalDate from, LocalDate to,
+            Double depositAmount, LocalDateTime depositDateTime, Double oldBalance) {
+
+        // Whole IST days from..to
+        LocalDateTime fromTime = from.atStartOfDay();
+        LocalDateTime toTime = to.plusDays(1).atStartOfDay();
+
+        try (Stream<SaleReportRow> rows = clientId != null
+                ? saleEntryRepository.streamReportRowsByClientId(clientId, fromTime, toTime)
+                : saleEntryRepository.streamReportRows(fromTime, toTime)) {
+
+            pdfService.writeSalesPdf(out, clientName, rows.iterator(), from, to, clientId == null,
+                    depositAmount, depositDateTime, oldBalance);
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.example.wholesalesalesbackend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.wholesalesalesbackend.model.Paise;
+import com.example.wholesalesalesbackend.repository.ClientBalanceSnapshotRepository;
+import com.example.wholesalesalesbackend.repository.StatementClientProjection;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Month-end statements for every active client, rendered in parallel and
+ * written into a ZIP in the order they finish.
+ */
+@Service
+public class StatementBatchService {
+
+    @Autowired
+    private ClientBalanceSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private SalesReportService salesReportService;
+
+    // Each worker holds a database connection while rendering, so keep this below the pool size
+    @Value("${pdf.statements.threads:4}")
+    private int threads;
+
+    private ExecutorService workers;
+
+    @PostConstruct
+    void init() {
+        workers = Executors.newFixedThreadPool(threads);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+
+    private static class Statement {
+        final String entryName;
+        final byte[] pdf;
+
+        Statement(String entryName, byte[] pdf) {
+            this.entryName = entryName;
+            this.pdf = pdf;
+        }
+    }
+
+    /**
+     * Clients with entries in the period or a non-zero opening balance get a
+     * statement. At most twice the pool size of finished PDFs wait in memory
+     * for the ZIP writer.
+     */
+    public void writeStatementsZip(OutputStream out, LocalDate from, LocalDate to) throws IOException {
+        List<StatementClientProjection> clients = new ArrayList<>();
+        for (StatementClientProjection client : snapshotRepository.findStatementClients(from, to)) {
+            long opening = client.getOpeningBalance() != null ? client.getOpeningBalance() : 0L;
+            if (client.getEntryCount() > 0 || opening != 0) {
+                clients.add(client);
+            }
+        }
+
+        CompletionService<Statement> completion = new ExecutorCompletionService<>(workers);
+        List<Future<Statement>> submitted = new ArrayList<>();
+        Iterator<StatementClientProjection> pending = clients.iterator();
+        int inFlight = 0;
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        // PDFs are already compressed
+        zip.setLevel(Deflater.BEST_SPEED);
+
+        try {
+            while (inFlight < threads * 2 && pending.hasNext()) {
+                submitted.add(completion.submit(render(pending.next(), from, to)));
+                inFlight++;
+            }
+
+            while (inFlight > 0) {
+                Statement statement = completion.take().get();
+                inFlight--;
+                if (pending.hasNext()) {
+                    submitted.add(completion.submit(render(pending.next(), from, to)));
+                    inFlight++;
+                }
+
+                zip.putNextEntry(new ZipEntry(statement.entryName));
+                zip.write(statement.pdf);
+                zip.closeEntry();
+                zip.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Statement batch interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error generating statement: " + e.getCause().getMessage());
+        } finally {
+            for (Future<Statement> future : submitted) {
+                future.cancel(true);
+            }
+        }
+
+        zip.finish();
+        zip.flush();
+    }
+
+    private Callable<Statement> render(StatementClientProjection client, LocalDate from,
+            LocalDate to) {
+        return () -> {
+            ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+            salesReportService.writeReport(pdf, client.getClientId(), client.getClientName(), from, to,
+                    0.0, null, Paise.toRupees(client.getOpeningBalance()));
+
+            String entryName = "statement_" + client.getClientId() + "_"
+                    + String.valueOf(client.getClientName()).replaceAll("[^A-Za-z0-9_-]", "_") + ".pdf";
+            return new Statement(entryName, pdf.toByteArray());
+        };
+    }
+
+}
@@ -0,0 +1,16 @@
+-- Every client's outstanding balance (SUM(total_price) over all entries), last
+-- sale day and entry count, read from sale_daily_rollup. Refreshed on a
+-- schedule by ClientBalanceService; refreshed_at tells readers how old it is.
+CREATE MATERIALIZED VIEW client_balance_summary AS
+SELECT c.id AS client_id,
+       c.name AS client_name,
+       COALESCE(SUM(r.sale_total), 0) AS balance,
+       MAX(r.sale_day) FILTER (WHERE r.entry_count > 0) AS last_sale_day,
+       COALESCE(SUM(r.entry_count), 0) AS entry_count,
+       now() AS refreshed_at
+FROM clients c
+LEFT JOIN sale_daily_rollup r ON r.client_id = c.id
+GROUP BY c.id, c.name;
+
+-- Required by REFRESH MATERIALIZED VIEW CONCURRENTLY
+CREATE UNIQUE INDEX idx_client_balance_summary_client_id ON client_balance_summary (client_id);
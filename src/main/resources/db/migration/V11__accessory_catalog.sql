@@ -0,0 +1,51 @@
+-- Product catalog. sale_entry references it by integer id instead of storing
+-- "ADD -> name" / "RETURN -> name" text; return_flag is the only direction marker.
+CREATE TABLE accessory (
+    id integer GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name varchar(255) NOT NULL UNIQUE
+);
+
+INSERT INTO accessory (name)
+SELECT DISTINCT accessory_key(accessory_name) FROM sale_entry ORDER BY 1;
+
+-- UNKNOWN is what the insert path stores when no name is given
+INSERT INTO accessory (name) VALUES ('UNKNOWN') ON CONFLICT (name) DO NOTHING;
+
+ALTER TABLE sale_entry ADD COLUMN accessory_id integer;
+
+UPDATE sale_entry s
+SET accessory_id = a.id
+FROM accessory a
+WHERE a.name = accessory_key(s.accessory_name);
+
+ALTER TABLE sale_entry ALTER COLUMN accessory_id SET NOT NULL;
+ALTER TABLE sale_entry ADD CONSTRAINT fk_sale_entry_accessory FOREIGN KEY (accessory_id) REFERENCES accessory;
+CREATE INDEX idx_sale_entry_accessory_id_sale_day ON sale_entry (accessory_id, sale_day);
+
+ALTER TABLE sale_entry DROP COLUMN accessory_name;
+
+-- Per-product rollup keyed by the catalog id from now on
+DROP TABLE accessory_daily_rollup;
+
+CREATE TABLE accessory_daily_rollup (
+    client_id bigint NOT NULL REFERENCES clients ON DELETE CASCADE,
+    sale_day date NOT NULL,
+    accessory_id integer NOT NULL REFERENCES accessory,
+    quantity bigint NOT NULL DEFAULT 0,
+    revenue float(53) NOT NULL DEFAULT 0,
+    profit float(53) NOT NULL DEFAULT 0,
+    entry_count bigint NOT NULL DEFAULT 0,
+    PRIMARY KEY (client_id, sale_day, accessory_id)
+);
+
+CREATE INDEX idx_accessory_daily_rollup_sale_day ON accessory_daily_rollup (sale_day);
+
+INSERT INTO accessory_daily_rollup (client_id, sale_day, accessory_id, quantity, revenue, profit, entry_count)
+SELECT client_id, sale_day, accessory_id,
+       COALESCE(SUM(CASE WHEN return_flag THEN -quantity ELSE quantity END), 0),
+       COALESCE(SUM(total_price), 0), COALESCE(SUM(profit), 0), COUNT(*)
+FROM sale_entry
+WHERE client_id IS NOT NULL AND sale_day IS NOT NULL
+GROUP BY client_id, sale_day, accessory_id;
+
+DROP FUNCTION accessory_key(text);
@@ -0,0 +1,105 @@
+-- sale_entry becomes range-partitioned by month on sale_date_time (IST wall-clock time).
+-- Queries bounded on sale_date_time only touch the months they cover, and each month
+-- has its own small indexes and vacuum cycle. Partitions are named sale_entry_YYYY_MM;
+-- anything outside them lands in sale_entry_default.
+
+-- The partition key must be part of the primary key, so it can no longer be NULL.
+-- Entries without a time were invisible to every date-ranged report and the rollups;
+-- they are kept, parked at the epoch.
+UPDATE sale_entry SET sale_date_time = timestamp '1970-01-01 00:00:00' WHERE sale_date_time IS NULL;
+
+ALTER SEQUENCE sale_entry_seq OWNED BY NONE;
+ALTER TABLE sale_entry RENAME TO sale_entry_unpartitioned;
+
+CREATE TABLE sale_entry (
+    id bigint NOT NULL DEFAULT nextval('sale_entry_seq'),
+    accessory_id integer NOT NULL REFERENCES accessory,
+    note varchar(255),
+    profit float(53),
+    quantity integer,
+    return_flag boolean,
+    sale_date_time timestamp(6) NOT NULL,
+    total_price float(53),
+    client_id bigint REFERENCES clients,
+    sale_day date GENERATED ALWAYS AS (CAST(sale_date_time AS date)) STORED,
+    PRIMARY KEY (id, sale_date_time)
+) PARTITION BY RANGE (sale_date_time);
+
+COMMENT ON COLUMN sale_entry.sale_day IS 'IST calendar day of sale_date_time';
+
+ALTER SEQUENCE sale_entry_seq OWNED BY sale_entry.id;
+
+CREATE TABLE sale_entry_default PARTITION OF sale_entry DEFAULT;
+
+/*
+ * Creates the partition for the month containing month_start (no-op if it exists).
+ * Rows of that month sitting in the default partition are moved into it.
+ */
+CREATE OR REPLACE FUNCTION create_sale_entry_partition(month_start date) RETURNS text
+LANGUAGE plpgsql AS $$
+DECLARE
+    from_ts timestamp := date_trunc('month', month_start);
+    to_ts timestamp := date_trunc('month', month_start) + interval '1 month';
+    part text := 'sale_entry_' || to_char(date_trunc('month', month_start), 'YYYY_MM');
+BEGIN
+    IF to_regclass(part) IS NOT NULL THEN
+        RETURN part;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM sale_entry_default WHERE sale_date_time >= from_ts AND sale_date_time < to_ts) THEN
+        ALTER TABLE sale_entry DETACH PARTITION sale_entry_default;
+        EXECUTE format('CREATE TABLE %I PARTITION OF sale_entry FOR VALUES FROM (%L) TO (%L)', part, from_ts, to_ts);
+        INSERT INTO sale_entry (id, accessory_id, note, profit, quantity, return_flag, sale_date_time, total_price, client_id)
+        SELECT id, accessory_id, note, profit, quantity, return_flag, sale_date_time, total_price, client_id
+        FROM sale_entry_default WHERE sale_date_time >= from_ts AND sale_date_time < to_ts;
+        DELETE FROM sale_entry_default WHERE sale_date_time >= from_ts AND sale_date_time < to_ts;
+        ALTER TABLE sale_entry ATTACH PARTITION sale_entry_default DEFAULT;
+    ELSE
+        EXECUTE format('CREATE TABLE %I PARTITION OF sale_entry FOR VALUES FROM (%L) TO (%L)', part, from_ts, to_ts);
+    END IF;
+    RETURN part;
+END
+$$;
+
+/*
+ * Detaches the month containing month_start and returns the now standalone table
+ * (NULL if there is no such partition), ready to be dumped and dropped.
+ */
+CREATE OR REPLACE FUNCTION detach_sale_entry_partition(month_start date) RETURNS text
+LANGUAGE plpgsql AS $$
+DECLARE
+    part text := 'sale_entry_' || to_char(date_trunc('month', month_start), 'YYYY_MM');
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_inherits
+                   WHERE inhparent = 'sale_entry'::regclass AND inhrelid = to_regclass(part)) THEN
+        RETURN NULL;
+    END IF;
+    EXECUTE format('ALTER TABLE sale_entry DETACH PARTITION %I', part);
+    RETURN part;
+END
+$$;
+
+-- One partition per month from the oldest entry (at most ten years back, older or
+-- mistyped dates stay in the default partition) to three months ahead, in IST
+SELECT create_sale_entry_partition(CAST(m AS date))
+FROM generate_series(
+        date_trunc('month', GREATEST(
+                LEAST(COALESCE((SELECT MIN(sale_date_time) FROM sale_entry_unpartitioned
+                                WHERE sale_date_time > timestamp '1970-01-01 00:00:00'),
+                               now() AT TIME ZONE 'Asia/Kolkata'),
+                      now() AT TIME ZONE 'Asia/Kolkata'),
+                now() AT TIME ZONE 'Asia/Kolkata' - interval '10 years')),
+        date_trunc('month', now() AT TIME ZONE 'Asia/Kolkata') + interval '3 months',
+        interval '1 month') m;
+
+INSERT INTO sale_entry (id, accessory_id, note, profit, quantity, return_flag, sale_date_time, total_price, client_id)
+SELECT id, accessory_id, note, profit, quantity, return_flag, sale_date_time, total_price, client_id
+FROM sale_entry_unpartitioned;
+
+DROP TABLE sale_entry_unpartitioned;
+
+-- Defined on the parent, created on every partition
+CREATE INDEX idx_sale_entry_sale_date_time_id ON sale_entry (sale_date_time DESC, id DESC);
+CREATE INDEX idx_sale_entry_client_id_sale_day ON sale_entry (client_id, sale_day);
+CREATE INDEX idx_sale_entry_sale_day ON sale_entry (sale_day);
+CREATE INDEX idx_sale_entry_accessory_id_sale_day ON sale_entry (accessory_id, sale_day);
@@ -0,0 +1,71 @@
+-- Money is stored as whole paise in bigint columns instead of float rupees, so
+-- SUMs are exact and statements no longer drift by fractions of a paisa. The API
+-- still speaks rupees (see Paise). Existing amounts are rounded to the nearest
+-- paisa, halves away from zero.
+
+-- Depends on sale_daily_rollup.sale_total; recreated below
+DROP MATERIALIZED VIEW client_balance_summary;
+
+-- NULL amounts counted as zero in every SUM; they are now stored as zero
+UPDATE sale_entry SET total_price = 0 WHERE total_price IS NULL;
+UPDATE sale_entry SET profit = 0 WHERE profit IS NULL;
+
+-- Applies to every partition of sale_entry
+ALTER TABLE sale_entry
+    ALTER COLUMN total_price TYPE bigint USING round(CAST(total_price AS numeric) * 100),
+    ALTER COLUMN total_price SET NOT NULL,
+    ALTER COLUMN profit TYPE bigint USING round(CAST(profit AS numeric) * 100),
+    ALTER COLUMN profit SET NOT NULL;
+
+-- The rollups are rebuilt from the converted entries rather than rounded on
+-- their own, so they match sale_entry to the paisa
+TRUNCATE sale_daily_rollup;
+
+ALTER TABLE sale_daily_rollup
+    ALTER COLUMN sale_total TYPE bigint,
+    ALTER COLUMN profit_total TYPE bigint,
+    ALTER COLUMN return_total TYPE bigint,
+    ALTER COLUMN return_profit TYPE bigint;
+
+INSERT INTO sale_daily_rollup (client_id, sale_day, sale_total, profit_total, entry_count,
+                               return_total, return_profit, return_count)
+SELECT client_id, sale_day, COALESCE(SUM(total_price), 0), COALESCE(SUM(profit), 0), COUNT(*),
+       COALESCE(SUM(total_price) FILTER (WHERE return_flag), 0),
+       COALESCE(SUM(profit) FILTER (WHERE return_flag), 0),
+       COUNT(*) FILTER (WHERE return_flag)
+FROM sale_entry
+WHERE client_id IS NOT NULL AND sale_day IS NOT NULL
+GROUP BY client_id, sale_day;
+
+TRUNCATE accessory_daily_rollup;
+
+ALTER TABLE accessory_daily_rollup
+    ALTER COLUMN revenue TYPE bigint,
+    ALTER COLUMN profit TYPE bigint;
+
+INSERT INTO accessory_daily_rollup (client_id, sale_day, accessory_id, quantity, revenue, profit, entry_count)
+SELECT client_id, sale_day, accessory_id,
+       COALESCE(SUM(CASE WHEN return_flag THEN -quantity ELSE quantity END), 0),
+       COALESCE(SUM(total_price), 0), COALESCE(SUM(profit), 0), COUNT(*)
+FROM sale_entry
+WHERE client_id IS NOT NULL AND sale_day IS NOT NULL
+GROUP BY client_id, sale_day, accessory_id;
+
+-- Snapshots are recomputed from the rollup on demand
+TRUNCATE client_balance_snapshot;
+
+ALTER TABLE client_balance_snapshot
+    ALTER COLUMN closing_balance TYPE bigint;
+
+CREATE MATERIALIZED VIEW client_balance_summary AS
+SELECT c.id AS client_id,
+       c.name AS client_name,
+       COALESCE(SUM(r.sale_total), 0) AS balance,
+       MAX(r.sale_day) FILTER (WHERE r.entry_count > 0) AS last_sale_day,
+       COALESCE(SUM(r.entry_count), 0) AS entry_count,
+       now() AS refreshed_at
+FROM clients c
+LEFT JOIN sale_daily_rollup r ON r.client_id = c.id
+GROUP BY c.id, c.name;
+
+CREATE UNIQUE INDEX idx_client_balance_summary_client_id ON client_balance_summary (client_id);
@@ -0,0 +1,50 @@
+-- create_sale_entry_partition checked for the table and then created it, so two
+-- instances starting together (or running their daily job at the same time) could
+-- both miss it and one failed with "relation already exists". Both partition
+-- functions now queue on a transaction-scoped advisory lock first; the second caller
+-- then finds the committed partition. Key (2, 0) in the two-int space; (1, *) is
+-- taken by the client balance locks.
+
+CREATE OR REPLACE FUNCTION create_sale_entry_partition(month_start date) RETURNS text
+LANGUAGE plpgsql AS $$
+DECLARE
+    from_ts timestamp := date_trunc('month', month_start);
+    to_ts timestamp := date_trunc('month', month_start) + interval '1 month';
+    part text := 'sale_entry_' || to_char(date_trunc('month', month_start), 'YYYY_MM');
+BEGIN
+    PERFORM pg_advisory_xact_lock(2, 0);
+
+    IF to_regclass(part) IS NOT NULL THEN
+        RETURN part;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM sale_entry_default WHERE sale_date_time >= from_ts AND sale_date_time < to_ts) THEN
+        ALTER TABLE sale_entry DETACH PARTITION sale_entry_default;
+        EXECUTE format('CREATE TABLE %I PARTITION OF sale_entry FOR VALUES FROM (%L) TO (%L)', part, from_ts, to_ts);
+        INSERT INTO sale_entry (id, accessory_id, note, profit, quantity, return_flag, sale_date_time, total_price, client_id)
+        SELECT id, accessory_id, note, profit, quantity, return_flag, sale_date_time, total_price, client_id
+        FROM sale_entry_default WHERE sale_date_time >= from_ts AND sale_date_time < to_ts;
+        DELETE FROM sale_entry_default WHERE sale_date_time >= from_ts AND sale_date_time < to_ts;
+        ALTER TABLE sale_entry ATTACH PARTITION sale_entry_default DEFAULT;
+    ELSE
+        EXECUTE format('CREATE TABLE %I PARTITION OF sale_entry FOR VALUES FROM (%L) TO (%L)', part, from_ts, to_ts);
+    END IF;
+    RETURN part;
+END
+$$;
+
+CREATE OR REPLACE FUNCTION detach_sale_entry_partition(month_start date) RETURNS text
+LANGUAGE plpgsql AS $$
+DECLARE
+    part text := 'sale_entry_' || to_char(date_trunc('month', month_start), 'YYYY_MM');
+BEGIN
+    PERFORM pg_advisory_xact_lock(2, 0);
+
+    IF NOT EXISTS (SELECT 1 FROM pg_inherits
+                   WHERE inhparent = 'sale_entry'::regclass AND inhrelid = to_regclass(part)) THEN
+        RETURN NULL;
+    END IF;
+    EXECUTE format('ALTER TABLE sale_entry DETACH PARTITION %I', part);
+    RETURN part;
+END
+$$;
@@ -0,0 +1,65 @@
+-- A detached month leaves sale_entry but keeps its rollup rows, which become the
+-- record of that month. Detached months are listed here: rollup rebuilds leave their
+-- rows alone, and raw balances read them from the rollup instead of sale_entry.
+CREATE TABLE sale_entry_archive (
+    archived_month date PRIMARY KEY,
+    table_name text NOT NULL,
+    detached_at timestamptz NOT NULL DEFAULT now()
+);
+
+/*
+ * Detaching also closes the month: an empty partition that rejects every row takes
+ * its place, so no later entry can change totals that can no longer be rebuilt.
+ */
+CREATE OR REPLACE FUNCTION detach_sale_entry_partition(month_start date) RETURNS text
+LANGUAGE plpgsql AS $$
+DECLARE
+    from_ts timestamp := date_trunc('month', month_start);
+    to_ts timestamp := date_trunc('month', month_start) + interval '1 month';
+    part text := 'sale_entry_' || to_char(date_trunc('month', month_start), 'YYYY_MM');
+BEGIN
+    PERFORM pg_advisory_xact_lock(2, 0);
+
+    IF NOT EXISTS (SELECT 1 FROM pg_inherits
+                   WHERE inhparent = 'sale_entry'::regclass AND inhrelid = to_regclass(part)) THEN
+        RETURN NULL;
+    END IF;
+    EXECUTE format('ALTER TABLE sale_entry DETACH PARTITION %I', part);
+    EXECUTE format('CREATE TABLE %I PARTITION OF sale_entry (CONSTRAINT sale_entry_month_archived CHECK (false)) '
+                   'FOR VALUES FROM (%L) TO (%L)', part || '_archived', from_ts, to_ts);
+    INSERT INTO sale_entry_archive (archived_month, table_name) VALUES (CAST(from_ts AS date), part);
+    RETURN part;
+END
+$$;
+
+-- As in V14, except that an archived month keeps its closed partition
+CREATE OR REPLACE FUNCTION create_sale_entry_partition(month_start date) RETURNS text
+LANGUAGE plpgsql AS $$
+DECLARE
+    from_ts timestamp := date_trunc('month', month_start);
+    to_ts timestamp := date_trunc('month', month_start) + interval '1 month';
+    part text := 'sale_entry_' || to_char(date_trunc('month', month_start), 'YYYY_MM');
+BEGIN
+    PERFORM pg_advisory_xact_lock(2, 0);
+
+    IF EXISTS (SELECT 1 FROM sale_entry_archive WHERE archived_month = CAST(from_ts AS date)) THEN
+        RETURN part || '_archived';
+    END IF;
+    IF to_regclass(part) IS NOT NULL THEN
+        RETURN part;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM sale_entry_default WHERE sale_date_time >= from_ts AND sale_date_time < to_ts) THEN
+        ALTER TABLE sale_entry DETACH PARTITION sale_entry_default;
+        EXECUTE format('CREATE TABLE %I PARTITION OF sale_entry FOR VALUES FROM (%L) TO (%L)', part, from_ts, to_ts);
+        INSERT INTO sale_entry (id, accessory_id, note, profit, quantity, return_flag, sale_date_time, total_price, client_id)
+        SELECT id, accessory_id, note, profit, quantity, return_flag, sale_date_time, total_price, client_id
+        FROM sale_entry_default WHERE sale_date_time >= from_ts AND sale_date_time < to_ts;
+        DELETE FROM sale_entry_default WHERE sale_date_time >= from_ts AND sale_date_time < to_ts;
+        ALTER TABLE sale_entry ATTACH PARTITION sale_entry_default DEFAULT;
+    ELSE
+        EXECUTE format('CREATE TABLE %I PARTITION OF sale_entry FOR VALUES FROM (%L) TO (%L)', part, from_ts, to_ts);
+    END IF;
+    RETURN part;
+END
+$$;
@@ -0,0 +1,44 @@
+-- A detached month keeps the client_id foreign key it had as a partition, and that
+-- key does not cascade. Deleting a client removes their rows through sale_entry
+-- (and their rollups by cascade) but cannot reach the detached table, so deleting
+-- any client with sales in an archived month failed. The archived copy is history
+-- to be dumped, not live data: it drops the key and keeps rows of deleted clients.
+
+CREATE OR REPLACE FUNCTION drop_archived_client_fk(archived_table text) RETURNS void
+LANGUAGE plpgsql AS $$
+DECLARE
+    fk name;
+BEGIN
+    FOR fk IN SELECT conname FROM pg_constraint
+              WHERE conrelid = to_regclass(archived_table) AND contype = 'f'
+                AND confrelid = 'clients'::regclass LOOP
+        EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', archived_table, fk);
+    END LOOP;
+END
+$$;
+
+-- As in V15, plus the key above
+CREATE OR REPLACE FUNCTION detach_sale_entry_partition(month_start date) RETURNS text
+LANGUAGE plpgsql AS $$
+DECLARE
+    from_ts timestamp := date_trunc('month', month_start);
+    to_ts timestamp := date_trunc('month', month_start) + interval '1 month';
+    part text := 'sale_entry_' || to_char(date_trunc('month', month_start), 'YYYY_MM');
+BEGIN
+    PERFORM pg_advisory_xact_lock(2, 0);
+
+    IF NOT EXISTS (SELECT 1 FROM pg_inherits
+                   WHERE inhparent = 'sale_entry'::regclass AND inhrelid = to_regclass(part)) THEN
+        RETURN NULL;
+    END IF;
+    EXECUTE format('ALTER TABLE sale_entry DETACH PARTITION %I', part);
+    PERFORM drop_archived_client_fk(part);
+    EXECUTE format('CREATE TABLE %I PARTITION OF sale_entry (CONSTRAINT sale_entry_month_archived CHECK (false)) '
+                   'FOR VALUES FROM (%L) TO (%L)', part || '_archived', from_ts, to_ts);
+    INSERT INTO sale_entry_archive (archived_month, table_name) VALUES (CAST(from_ts AS date), part);
+    RETURN part;
+END
+$$;
+
+-- Months detached before this migration
+SELECT drop_archived_client_fk(table_name) FROM sale_entry_archive WHERE to_regclass(table_name) IS NOT NULL;
@@ -0,0 +1,58 @@
+-- Schema as previously generated by hibernate ddl-auto=update.
+-- Existing databases are baselined at this version and skip it.
+
+CREATE TABLE IF NOT EXISTS clients (
+    id bigserial NOT NULL,
+    contact varchar(255),
+    location varchar(255),
+    name varchar(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT UK_k49t374y88hquc0xxwg5iudfv UNIQUE (name)
+);
+
+CREATE TABLE IF NOT EXISTS sale_entry (
+    id bigserial NOT NULL,
+    accessory_name varchar(255),
+    note varchar(255),
+    profit float(53),
+    quantity integer,
+    return_flag boolean,
+    sale_date_time timestamp(6),
+    total_price float(53),
+    client_id bigint,
+    PRIMARY KEY (id),
+    CONSTRAINT FK81t7mecidt8c3wp44kj82oega FOREIGN KEY (client_id) REFERENCES clients
+);
+
+CREATE INDEX IF NOT EXISTS idx_sale_entry_sale_date_time_id ON sale_entry (sale_date_time DESC, id DESC);
+
+CREATE TABLE IF NOT EXISTS users (
+    id bigserial NOT NULL,
+    mail varchar(255) NOT NULL,
+    mobile_number bigint NOT NULL,
+    password varchar(255) NOT NULL,
+    username varchar(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT UK_jhck7kjdogc7yia7qamc89ypv UNIQUE (mail),
+    CONSTRAINT UK_r7c96a004bv8w16jgdm8imich UNIQUE (mobile_number),
+    CONSTRAINT UK_r43af9ap4edm43mmtq01oddj6 UNIQUE (username)
+);
+
+CREATE TABLE IF NOT EXISTS otp_verification (
+    id bigserial NOT NULL,
+    created_at timestamp(6),
+    email varchar(255),
+    expiry_time timestamp(6),
+    otp varchar(255),
+    verified boolean NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS pdf_log (
+    id bigserial NOT NULL,
+    file_name varchar(255),
+    file_path varchar(255),
+    generated_at timestamp(6),
+    sent_to_client varchar(255),
+    PRIMARY KEY (id)
+);
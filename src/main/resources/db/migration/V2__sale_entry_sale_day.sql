@@ -0,0 +1,12 @@
+-- sale_date_time holds Asia/Kolkata wall-clock time (SaleEntryService converts to IST
+-- before saving), so its date part is the IST sale day. Persisting it lets day filters
+-- use an index instead of evaluating DATE(sale_date_time) on every row.
+CREATE INDEX IF NOT EXISTS idx_sale_entry_sale_date_time_id ON sale_entry (sale_date_time DESC, id DESC);
+
+ALTER TABLE sale_entry
+    ADD COLUMN sale_day date GENERATED ALWAYS AS (CAST(sale_date_time AS date)) STORED;
+
+COMMENT ON COLUMN sale_entry.sale_day IS 'IST calendar day of sale_date_time';
+
+CREATE INDEX idx_sale_entry_client_id_sale_day ON sale_entry (client_id, sale_day);
+CREATE INDEX idx_sale_entry_sale_day ON sale_entry (sale_day);
@@ -0,0 +1,18 @@
+-- Per client, per IST day totals of sale_entry. Kept in step with sale_entry by
+-- SaleRollupService inside the same transaction as every sale write.
+CREATE TABLE sale_daily_rollup (
+    client_id bigint NOT NULL REFERENCES clients ON DELETE CASCADE,
+    sale_day date NOT NULL,
+    sale_total float(53) NOT NULL DEFAULT 0,
+    profit_total float(53) NOT NULL DEFAULT 0,
+    entry_count bigint NOT NULL DEFAULT 0,
+    PRIMARY KEY (client_id, sale_day)
+);
+
+CREATE INDEX idx_sale_daily_rollup_sale_day ON sale_daily_rollup (sale_day);
+
+INSERT INTO sale_daily_rollup (client_id, sale_day, sale_total, profit_total, entry_count)
+SELECT client_id, sale_day, COALESCE(SUM(total_price), 0), COALESCE(SUM(profit), 0), COUNT(*)
+FROM sale_entry
+WHERE client_id IS NOT NULL AND sale_day IS NOT NULL
+GROUP BY client_id, sale_day;
@@ -0,0 +1,9 @@
+-- closing_balance = SUM(total_price) of the client's entries with sale_day <= snapshot_day.
+-- Rows from a changed day onwards are deleted whenever a sale on that day is written.
+CREATE TABLE client_balance_snapshot (
+    client_id bigint NOT NULL REFERENCES clients ON DELETE CASCADE,
+    snapshot_day date NOT NULL,
+    closing_balance float(53) NOT NULL,
+    created_at timestamp(6) NOT NULL DEFAULT now(),
+    PRIMARY KEY (client_id, snapshot_day)
+);
@@ -0,0 +1,13 @@
+-- Hibernate cannot batch inserts when ids come from an IDENTITY / bigserial column.
+-- sale_entry.id now comes from a sequence that hands out blocks of 50 (pooled optimizer),
+-- so ids are known before the INSERT and rows can be sent in JDBC batches.
+CREATE SEQUENCE sale_entry_seq INCREMENT BY 50;
+
+-- The pooled optimizer treats each nextval as the top of its block: the first block
+-- must end 50 past the current maximum id.
+SELECT setval('sale_entry_seq', COALESCE(MAX(id), 0) + 50, false) FROM sale_entry;
+
+ALTER TABLE sale_entry ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE sale_entry ALTER COLUMN id SET DEFAULT nextval('sale_entry_seq');
+ALTER SEQUENCE sale_entry_seq OWNED BY sale_entry.id;
+DROP SEQUENCE IF EXISTS sale_entry_id_seq;
@@ -0,0 +1,15 @@
+-- pdf_log doubles as the queue for asynchronous report jobs.
+-- Rows written before this migration were finished reports.
+ALTER TABLE pdf_log ADD COLUMN IF NOT EXISTS status varchar(16) NOT NULL DEFAULT 'DONE';
+ALTER TABLE pdf_log ADD COLUMN IF NOT EXISTS client_id bigint;
+ALTER TABLE pdf_log ADD COLUMN IF NOT EXISTS from_date date;
+ALTER TABLE pdf_log ADD COLUMN IF NOT EXISTS to_date date;
+ALTER TABLE pdf_log ADD COLUMN IF NOT EXISTS deposit_amount float(53);
+ALTER TABLE pdf_log ADD COLUMN IF NOT EXISTS deposit_date_time timestamp(6);
+ALTER TABLE pdf_log ADD COLUMN IF NOT EXISTS old_balance float(53);
+ALTER TABLE pdf_log ADD COLUMN IF NOT EXISTS requested_at timestamp(6);
+ALTER TABLE pdf_log ADD COLUMN IF NOT EXISTS claimed_at timestamp(6);
+ALTER TABLE pdf_log ADD COLUMN IF NOT EXISTS error varchar(1000);
+
+-- Workers only ever scan the pending head of the queue
+CREATE INDEX IF NOT EXISTS idx_pdf_log_pending ON pdf_log (requested_at, id) WHERE status = 'PENDING';
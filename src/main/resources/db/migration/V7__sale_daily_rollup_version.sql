@@ -0,0 +1,7 @@
+-- Every write to a rollup row stamps it with a fresh sequence value. A range's
+-- data version is derived from these, so cached reports over that range can be
+-- reused until any row in it changes.
+CREATE SEQUENCE IF NOT EXISTS sale_daily_rollup_version_seq;
+
+ALTER TABLE sale_daily_rollup
+    ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT nextval('sale_daily_rollup_version_seq');
@@ -0,0 +1,18 @@
+-- The return entries' share of each rollup row, so sales and returns can be
+-- reported apart. sale_total / profit_total / entry_count stay net of returns.
+ALTER TABLE sale_daily_rollup ADD COLUMN IF NOT EXISTS return_total float(53) NOT NULL DEFAULT 0;
+ALTER TABLE sale_daily_rollup ADD COLUMN IF NOT EXISTS return_profit float(53) NOT NULL DEFAULT 0;
+ALTER TABLE sale_daily_rollup ADD COLUMN IF NOT EXISTS return_count bigint NOT NULL DEFAULT 0;
+
+UPDATE sale_daily_rollup r
+SET return_total = t.return_total,
+    return_profit = t.return_profit,
+    return_count = t.return_count
+FROM (SELECT client_id, sale_day,
+             COALESCE(SUM(total_price), 0) AS return_total,
+             COALESCE(SUM(profit), 0) AS return_profit,
+             COUNT(*) AS return_count
+      FROM sale_entry
+      WHERE return_flag AND client_id IS NOT NULL AND sale_day IS NOT NULL
+      GROUP BY client_id, sale_day) t
+WHERE r.client_id = t.client_id AND r.sale_day = t.sale_day;
@@ -0,0 +1,29 @@
+-- Product name without the ADD -> / RETURN -> direction prefix, so a sale and
+-- its return land in the same group.
+CREATE OR REPLACE FUNCTION accessory_key(name text) RETURNS text
+LANGUAGE sql IMMUTABLE AS
+$$ SELECT COALESCE(NULLIF(btrim(regexp_replace(name, '^(ADD|RETURN) -> ', '')), ''), 'UNKNOWN') $$;
+
+-- Per client, per IST day, per product totals of sale_entry. Returns count
+-- against quantity and (being stored negative) against revenue and profit.
+-- Kept in step by SaleRollupService alongside sale_daily_rollup.
+CREATE TABLE accessory_daily_rollup (
+    client_id bigint NOT NULL REFERENCES clients ON DELETE CASCADE,
+    sale_day date NOT NULL,
+    accessory text NOT NULL,
+    quantity bigint NOT NULL DEFAULT 0,
+    revenue float(53) NOT NULL DEFAULT 0,
+    profit float(53) NOT NULL DEFAULT 0,
+    entry_count bigint NOT NULL DEFAULT 0,
+    PRIMARY KEY (client_id, sale_day, accessory)
+);
+
+CREATE INDEX idx_accessory_daily_rollup_sale_day ON accessory_daily_rollup (sale_day);
+
+INSERT INTO accessory_daily_rollup (client_id, sale_day, accessory, quantity, revenue, profit, entry_count)
+SELECT client_id, sale_day, accessory_key(accessory_name),
+       COALESCE(SUM(CASE WHEN return_flag THEN -quantity ELSE quantity END), 0),
+       COALESCE(SUM(total_price), 0), COALESCE(SUM(profit), 0), COUNT(*)
+FROM sale_entry
+WHERE client_id IS NOT NULL AND sale_day IS NOT NULL
+GROUP BY client_id, sale_day, accessory_key(accessory_name);
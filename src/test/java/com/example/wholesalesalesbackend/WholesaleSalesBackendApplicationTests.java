@@ -1,10 +1,8 @@
 package com.example.wholesalesalesbackend;
 
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
-class WholesaleSalesBackendApplicationTests {
+class WholesaleSalesBackendApplicationTests extends PostgresIntegrationTest {
 
 	@Test
 	void contextLoads() {
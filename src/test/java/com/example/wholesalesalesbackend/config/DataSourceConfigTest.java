@@ -0,0 +1,114 @@
+package com.example.wholesalesalesbackend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.wholesalesalesbackend.model.Client;
+import com.example.wholesalesalesbackend.repository.ClientRepository;
+import com.example.wholesalesalesbackend.service.ClientCache;
+import com.example.wholesalesalesbackend.service.ClientService;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Two local instances: the replica has the schema but never receives the
+ * primary's rows, as a replica that is lagging behind.
+ */
+@SpringBootTest
+class DataSourceConfigTest {
+
+    private static final EmbeddedPostgres PRIMARY = start();
+    private static final EmbeddedPostgres REPLICA = start();
+
+    static {
+        Flyway.configure().dataSource(REPLICA.getPostgresDatabase()).load().migrate();
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void datasources(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> PRIMARY.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.datasource.replica.jdbc-url", () -> REPLICA.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.replica.username", () -> "postgres");
+        registry.add("spring.datasource.replica.password", () -> "postgres");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("pdf.jobs.poll-delay-ms", () -> "3600000");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ClientCache clientCache;
+
+    @Test
+    void readOnlyTransactionsGoToTheReplicaAndWritesToThePrimary() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+
+        assertEquals(REPLICA.getPort(), (int) readOnly.execute(status -> port()));
+        assertEquals(PRIMARY.getPort(), (int) transactionTemplate.execute(status -> port()));
+        assertEquals(PRIMARY.getPort(), port());
+    }
+
+    @Test
+    void clientLookupsSeeAClientTheReplicaHasNotReceived() {
+        Client client = clientService.addClient(Client.builder().name("not-replicated-yet").build());
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+
+        assertTrue(readOnly.execute(status -> clientRepository.findById(client.getId())).isEmpty());
+        assertTrue(readOnly.execute(status -> clientCache.findById(client.getId())).isPresent());
+        assertTrue(clientCache.findByName("not-replicated-yet").isPresent());
+        assertEquals(client.getId(), clientService.getClientById(client.getId()).getId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void withoutAReplicaEverythingRunsOnThePrimary() {
+        DataSource primary = mock(DataSource.class);
+        ObjectProvider<DataSource> noReplica = mock(ObjectProvider.class);
+
+        assertSame(primary, new DataSourceConfig().dataSource(primary, noReplica));
+    }
+
+    private int port() {
+        return jdbcTemplate.queryForObject("SELECT current_setting('port')::int", Integer.class);
+    }
+
+}
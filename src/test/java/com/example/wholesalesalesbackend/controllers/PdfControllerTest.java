@@ -0,0 +1,53 @@
+package com.example.wholesalesalesbackend.controllers;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.example.wholesalesalesbackend.service.PdfCacheService;
+import com.example.wholesalesalesbackend.service.SalesReportService;
+
+@ExtendWith(MockitoExtension.class)
+class PdfControllerTest {
+
+    @Mock
+    private SalesReportService salesReportService;
+
+    @Mock
+    private PdfCacheService pdfCacheService;
+
+    @InjectMocks
+    private PdfController pdfController;
+
+    @Test
+    void unchangedReportIsNotModifiedWithoutComputingTheOpeningBalance() throws Exception {
+        when(salesReportService.clientName(7L)).thenReturn("acme");
+        when(pdfCacheService.etag(eq(7L), eq("acme"), any(), any(), eq(0.0), isNull(), isNull()))
+                .thenReturn("abc123");
+
+        MockMvcBuilders.standaloneSetup(pdfController).build()
+                .perform(get("/api/pdf/sales")
+                        .param("clientId", "7")
+                        .param("from", "2024-03-01 00:00:00")
+                        .param("to", "2024-03-31 00:00:00")
+                        .header("If-None-Match", "\"abc123\""))
+                .andExpect(status().isNotModified());
+
+        verify(salesReportService, never()).openingBalance(anyLong(), any());
+        verify(salesReportService, never()).openingBalance(isNull(), any());
+    }
+
+}
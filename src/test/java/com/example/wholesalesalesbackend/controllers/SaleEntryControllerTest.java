@@ -0,0 +1,26 @@
+package com.example.wholesalesalesbackend.controllers;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.example.wholesalesalesbackend.PostgresIntegrationTest;
+
+class SaleEntryControllerTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private SaleEntryController saleEntryController;
+
+    @Test
+    void malformedCursorIsABadRequest() throws Exception {
+        MockMvcBuilders.standaloneSetup(saleEntryController).build()
+                .perform(get("/api/sales/all-sales/page").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid cursor: garbage"));
+    }
+
+}
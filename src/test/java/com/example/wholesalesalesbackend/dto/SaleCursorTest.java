@@ -0,0 +1,45 @@
+package com.example.wholesalesalesbackend.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.wholesalesalesbackend.exception.BadRequestException;
+
+class SaleCursorTest {
+
+    @Test
+    void encodeDecodeRoundTrips() {
+        SaleCursor cursor = new SaleCursor(LocalDateTime.of(2024, 3, 10, 14, 5, 30, 123_456_000), 42L);
+
+        SaleCursor decoded = SaleCursor.decode(cursor.encode());
+
+        assertEquals(cursor.getSaleDateTime(), decoded.getSaleDateTime());
+        assertEquals(cursor.getId(), decoded.getId());
+    }
+
+    @Test
+    void missingCursorStartsAtTheTop() {
+        assertSame(SaleCursor.FIRST, SaleCursor.decode(null));
+        assertSame(SaleCursor.FIRST, SaleCursor.decode(" "));
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(BadRequestException.class, () -> SaleCursor.decode("garbage"));
+        assertThrows(BadRequestException.class, () -> SaleCursor.decode("not base64!"));
+        assertThrows(BadRequestException.class, () -> SaleCursor.decode(encode("2024-01-01T00:00|abc")));
+        assertThrows(BadRequestException.class, () -> SaleCursor.decode(encode("2024-01-01T00:00")));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.example.wholesalesalesbackend.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class PaiseTest {
+
+    @Test
+    void wholeAndFractionalRupeesConvertExactly() {
+        assertEquals(0L, Paise.of(0.0));
+        assertEquals(150_000L, Paise.of(1500.0));
+        assertEquals(1999L, Paise.of(19.99));
+        assertEquals(10L, Paise.of(0.1));
+    }
+
+    @Test
+    void halvesRoundUp() {
+        // 1.005 is just below 1.005 as a binary double; the decimal value is what gets rounded
+        assertEquals(101L, Paise.of(1.005));
+        assertEquals(13L, Paise.of(0.125));
+        assertEquals(12L, Paise.of(0.124));
+    }
+
+    @Test
+    void negativeHalvesRoundAwayFromZero() {
+        assertEquals(-1013L, Paise.of(-10.125));
+        assertEquals(-1012L, Paise.of(-10.124));
+        assertEquals(-50L, Paise.of(-0.5));
+    }
+
+    @Test
+    void nullCountsAsZero() {
+        assertEquals(0L, Paise.of(null));
+    }
+
+    @Test
+    void toRupeesReversesOf() {
+        assertEquals(19.99, Paise.toRupees(Paise.of(19.99)));
+        assertEquals(-10.13, Paise.toRupees(-1013L));
+        assertEquals(0.0, Paise.toRupees(0L));
+        assertNull(Paise.toRupees((Long) null));
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.example.wholesalesalesbackend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.wholesalesalesbackend.PostgresIntegrationTest;
+import com.example.wholesalesalesbackend.model.PdfLog;
+
+class PdfLogRepositoryTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private PdfLogRepository pdfLogRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void onlyTheCurrentClaimCanFinishAJob() {
+        LocalDateTime firstClaim = LocalDateTime.of(2024, 1, 1, 10, 0, 0, 123_456_000);
+        LocalDateTime secondClaim = firstClaim.plusMinutes(20);
+        PdfLog job = pdfLogRepository.save(PdfLog.builder()
+                .status(PdfLog.RUNNING)
+                .requestedAt(firstClaim)
+                .claimedAt(firstClaim)
+                .build());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertEquals(1, pdfLogRepository.requeueStale(firstClaim.plusMinutes(15)));
+            PdfLog reclaimed = pdfLogRepository.findById(job.getId()).orElseThrow();
+            reclaimed.setStatus(PdfLog.RUNNING);
+            reclaimed.setClaimedAt(secondClaim);
+        });
+
+        Integer late = transactionTemplate.execute(status -> pdfLogRepository.markDone(job.getId(), firstClaim,
+                "late.pdf", "late.pdf", "A", secondClaim));
+        Integer lateFailure = transactionTemplate.execute(
+                status -> pdfLogRepository.markFailed(job.getId(), firstClaim, "too slow"));
+        Integer current = transactionTemplate.execute(status -> pdfLogRepository.markDone(job.getId(), secondClaim,
+                "current.pdf", "current.pdf", "A", secondClaim));
+
+        assertEquals(0, late);
+        assertEquals(0, lateFailure);
+        assertEquals(1, current);
+        PdfLog done = pdfLogRepository.findById(job.getId()).orElseThrow();
+        assertEquals(PdfLog.DONE, done.getStatus());
+        assertEquals("current.pdf", done.getFileName());
+    }
+
+}
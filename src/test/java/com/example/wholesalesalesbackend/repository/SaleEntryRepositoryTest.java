@@ -0,0 +1,52 @@
+package com.example.wholesalesalesbackend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.wholesalesalesbackend.PostgresIntegrationTest;
+
+class SaleEntryRepositoryTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private SaleEntryRepository saleEntryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ExecutorService other = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void stopOther() {
+        other.shutdownNow();
+    }
+
+    // Two instances creating the same month at startup
+    @Test
+    void concurrentPartitionCreationWaitsInsteadOfFailing() throws Exception {
+        LocalDate month = LocalDate.of(2090, 5, 1);
+
+        Future<String> second = transactionTemplate.execute(status -> {
+            assertEquals("sale_entry_2090_05", saleEntryRepository.createPartition(month));
+
+            Future<String> call = other.submit(() -> transactionTemplate.execute(
+                    inner -> saleEntryRepository.createPartition(month)));
+            assertThrows(TimeoutException.class, () -> call.get(500, TimeUnit.MILLISECONDS));
+            return call;
+        });
+
+        assertEquals("sale_entry_2090_05", second.get(10, TimeUnit.SECONDS));
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.example.wholesalesalesbackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.wholesalesalesbackend.PostgresIntegrationTest;
+import com.example.wholesalesalesbackend.repository.AccessoryRepository;
+
+class AccessoryCacheTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private AccessoryCache accessoryCache;
+
+    @Autowired
+    private AccessoryRepository accessoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void newNameIsPartOfTheCallersTransaction() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Integer id = accessoryCache.idFor("ADD -> rolled back cable");
+            assertEquals(id, accessoryCache.idFor("rolled back cable"));
+            status.setRollbackOnly();
+        });
+        assertTrue(accessoryRepository.findByName("rolled back cable").isEmpty());
+
+        // Nothing was cached for the rolled-back row
+        Integer id = transactionTemplate.execute(status -> accessoryCache.idFor("rolled back cable"));
+        assertEquals(id, accessoryRepository.findByName("rolled back cable").orElseThrow().getId());
+        assertEquals(id, accessoryCache.idFor("rolled back cable"));
+    }
+
+    @Test
+    void concurrentTransactionsAddingTheSameNameGetOneId() throws Exception {
+        CountDownLatch firstInserted = new CountDownLatch(1);
+        CountDownLatch secondStarted = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = pool.submit(() -> transactionTemplate.execute(status -> {
+                Integer id = accessoryCache.idFor("shared new cable");
+                firstInserted.countDown();
+                await(secondStarted);
+                return id;
+            }));
+            await(firstInserted);
+            // Blocks on the first transaction's uncommitted row, then reads the committed id
+            Future<Integer> second = pool.submit(() -> transactionTemplate.execute(status -> {
+                secondStarted.countDown();
+                return accessoryCache.idFor("shared new cable");
+            }));
+
+            assertEquals(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void resolveAllAddsEveryNameOnce() {
+        transactionTemplate.executeWithoutResult(status -> accessoryCache.resolveAll(
+                List.of("bulk b", "ADD -> bulk a", "RETURN -> bulk b", "bulk a")));
+
+        assertTrue(accessoryRepository.findByName("bulk a").isPresent());
+        assertTrue(accessoryRepository.findByName("bulk b").isPresent());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
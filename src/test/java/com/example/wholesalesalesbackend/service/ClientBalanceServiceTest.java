@@ -0,0 +1,93 @@
+package com.example.wholesalesalesbackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.wholesalesalesbackend.PostgresIntegrationTest;
+import com.example.wholesalesalesbackend.dto.SaleEntryRequestDTO;
+import com.example.wholesalesalesbackend.model.Client;
+
+/**
+ * A back-dated sale committed while another transaction is writing a balance
+ * snapshot must not leave that snapshot behind with the old balance.
+ */
+class ClientBalanceServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ClientBalanceService clientBalanceService;
+
+    @Autowired
+    private SaleEntryService saleEntryService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void stopWriter() {
+        writer.shutdownNow();
+    }
+
+    @Test
+    void backDatedSaleWaitsForAnOpeningBalanceSnapshot() throws Exception {
+        Client client = clientService.addClient(Client.builder().name("snapshot-race").build());
+        LocalDate from = LocalDate.of(2024, 3, 1);
+        saleEntryService.addSaleEntry(sale(client, 100.0, LocalDateTime.of(2024, 1, 10, 10, 0)));
+
+        Future<?> backDated = new TransactionTemplate(transactionManager).execute(status -> {
+            // Computes and upserts the snapshot at 2024-02-29, left uncommitted
+            assertEquals(100.0, clientBalanceService.getOpeningBalance(client.getId(), from));
+
+            Future<?> write = writer.submit(() -> saleEntryService.addSaleEntry(
+                    sale(client, 25.0, LocalDateTime.of(2024, 2, 5, 10, 0))));
+            assertThrows(TimeoutException.class, () -> write.get(500, TimeUnit.MILLISECONDS));
+            return write;
+        });
+        backDated.get(10, TimeUnit.SECONDS);
+
+        assertEquals(125.0, clientBalanceService.getOpeningBalance(client.getId(), from));
+    }
+
+    @Test
+    void saleInTheClosedMonthWaitsForTheMonthEndSnapshot() throws Exception {
+        Client client = clientService.addClient(Client.builder().name("month-end-race").build());
+        LocalDate monthStart = LocalDate.now(ZoneId.of("Asia/Kolkata")).withDayOfMonth(1);
+        LocalDateTime lastMonth = monthStart.minusDays(3).atTime(10, 0);
+        saleEntryService.addSaleEntry(sale(client, 40.0, lastMonth));
+
+        Future<?> backDated = new TransactionTemplate(transactionManager).execute(status -> {
+            clientBalanceService.snapshotPreviousMonth();
+
+            Future<?> write = writer.submit(() -> saleEntryService.addSaleEntry(sale(client, 2.5, lastMonth)));
+            assertThrows(TimeoutException.class, () -> write.get(500, TimeUnit.MILLISECONDS));
+            return write;
+        });
+        backDated.get(10, TimeUnit.SECONDS);
+
+        assertEquals(42.5, clientBalanceService.getOpeningBalance(client.getId(), monthStart));
+    }
+
+    private static SaleEntryRequestDTO sale(Client client, double amount, LocalDateTime time) {
+        return new SaleEntryRequestDTO("cable", 1, amount, 1.0, time, false, client.getId(), null);
+    }
+
+}
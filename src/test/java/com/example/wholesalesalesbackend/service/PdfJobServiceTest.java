@@ -0,0 +1,55 @@
+package com.example.wholesalesalesbackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.example.wholesalesalesbackend.PostgresIntegrationTest;
+import com.example.wholesalesalesbackend.model.PdfLog;
+import com.example.wholesalesalesbackend.repository.PdfLogRepository;
+
+class PdfJobServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private PdfJobService pdfJobService;
+
+    @Autowired
+    private PdfLogRepository pdfLogRepository;
+
+    @Test
+    void sweepDeletesOnlyFinishedJobsPastRetention() throws Exception {
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("Asia/Kolkata"));
+        PdfLog expired = job(PdfLog.DONE, now.minusDays(8), "sweep_test_expired.pdf");
+        Path expiredFile = pdfJobService.fileOf(expired);
+        Files.createDirectories(expiredFile.getParent());
+        Files.write(expiredFile, new byte[] { 1 });
+        PdfLog failed = job(PdfLog.FAILED, now.minusDays(30), null);
+        PdfLog recent = job(PdfLog.DONE, now.minusDays(1), "sweep_test_recent.pdf");
+        PdfLog running = job(PdfLog.RUNNING, now.minusDays(30), null);
+
+        pdfJobService.sweep();
+
+        assertFalse(pdfLogRepository.existsById(expired.getId()));
+        assertFalse(Files.exists(expiredFile));
+        assertFalse(pdfLogRepository.existsById(failed.getId()));
+        assertEquals(PdfLog.DONE, pdfJobService.getJob(recent.getId()).getStatus());
+        assertEquals(PdfLog.RUNNING, pdfJobService.getJob(running.getId()).getStatus());
+    }
+
+    private PdfLog job(String status, LocalDateTime requestedAt, String filePath) {
+        return pdfLogRepository.save(PdfLog.builder()
+                .status(status)
+                .requestedAt(requestedAt)
+                .claimedAt(requestedAt)
+                .filePath(filePath)
+                .build());
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.example.wholesalesalesbackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.example.wholesalesalesbackend.PostgresIntegrationTest;
+import com.example.wholesalesalesbackend.dto.SaleEntryDTO;
+import com.example.wholesalesalesbackend.dto.SaleEntryPage;
+import com.example.wholesalesalesbackend.dto.SaleEntryRequestDTO;
+import com.example.wholesalesalesbackend.model.Client;
+
+class SaleEntryServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private SaleEntryService saleEntryService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Test
+    void pagesThroughEqualSaleTimesByIdWithoutSkippingOrRepeating() {
+        Client client = clientService.addClient(Client.builder().name("cursor-ties").build());
+        LocalDateTime sameTime = LocalDateTime.of(2024, 2, 1, 10, 0);
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(saleEntryService.addSaleEntry(
+                    new SaleEntryRequestDTO("tie" + i, 1, 10.0, 1.0, sameTime, false, client.getId(), null)).getId());
+        }
+        expected.add(saleEntryService.addSaleEntry(new SaleEntryRequestDTO("earlier", 1, 10.0, 1.0,
+                sameTime.minusMinutes(1), false, client.getId(), null)).getId());
+        expected.subList(0, 5).sort(Comparator.reverseOrder());
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            SaleEntryPage page = saleEntryService.getSalesPage(client.getId(), null, null, null, null, cursor, 2);
+            page.getItems().stream().map(SaleEntryDTO::getId).forEach(seen::add);
+            cursor = page.getNext();
+        } while (cursor != null);
+
+        assertEquals(expected, seen);
+    }
+
+}
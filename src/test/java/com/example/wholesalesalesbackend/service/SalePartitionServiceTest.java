@@ -0,0 +1,96 @@
+package com.example.wholesalesalesbackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.wholesalesalesbackend.PostgresIntegrationTest;
+import com.example.wholesalesalesbackend.dto.SaleEntryRequestDTO;
+import com.example.wholesalesalesbackend.exception.BadRequestException;
+import com.example.wholesalesalesbackend.model.Client;
+import com.example.wholesalesalesbackend.repository.SaleEntryRepository;
+
+class SalePartitionServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private SalePartitionService salePartitionService;
+
+    @Autowired
+    private SaleEntryService saleEntryService;
+
+    @Autowired
+    private SaleRollupService saleRollupService;
+
+    @Autowired
+    private SalesReportService salesReportService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private SaleEntryRepository saleEntryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void detachedMonthStaysInBalancesAndSurvivesARebuild() {
+        Client client = clientService.addClient(Client.builder().name("archived-month").build());
+        saleEntryService.addSaleEntry(sale(client, 100.0, LocalDateTime.of(2023, 6, 10, 10, 0)));
+        saleEntryService.addSaleEntry(sale(client, 30.0, LocalDateTime.of(2023, 7, 5, 10, 0)));
+        transactionTemplate.execute(status -> saleEntryRepository.createPartition(LocalDate.of(2023, 6, 1)));
+
+        assertEquals("sale_entry_2023_06", salePartitionService.detachMonth(YearMonth.of(2023, 6)));
+
+        LocalDate from = LocalDate.of(2023, 8, 1);
+        assertEquals(130.0, salesReportService.openingBalance(client.getId(), from));
+        assertEquals(130.0, salesReportService.openingBalance(null, from));
+
+        assertEquals(0, saleRollupService.rebuild().getMismatchedDays());
+        assertEquals(130.0, salesReportService.openingBalance(client.getId(), from));
+        assertEquals(130.0, salesReportService.openingBalance(null, from));
+        assertEquals(100.0, saleEntryService.getTotalProfitByDateRange(LocalDateTime.of(2023, 6, 1, 0, 0),
+                LocalDateTime.of(2023, 6, 30, 23, 59, 59), null, client.getId()).getSale());
+
+        // The month is closed: nothing may change totals that can no longer be rebuilt
+        assertThrows(BadRequestException.class,
+                () -> saleEntryService.addSaleEntry(sale(client, 5.0, LocalDateTime.of(2023, 6, 11, 10, 0))));
+        assertEquals("FAILED", saleEntryService.addSaleEntries(
+                List.of(sale(client, 5.0, LocalDateTime.of(2023, 6, 11, 10, 0)))).get(0).getStatus());
+        assertEquals("sale_entry_2023_06_archived",
+                transactionTemplate.execute(status -> saleEntryRepository.createPartition(LocalDate.of(2023, 6, 1))));
+    }
+
+    @Test
+    void clientWithSalesInADetachedMonthCanBeDeleted() {
+        Client client = clientService.addClient(Client.builder().name("archived-then-deleted").build());
+        saleEntryService.addSaleEntry(sale(client, 40.0, LocalDateTime.of(2023, 3, 10, 10, 0)));
+        saleEntryService.addSaleEntry(sale(client, 60.0, LocalDateTime.of(2023, 4, 5, 10, 0)));
+        transactionTemplate.execute(status -> saleEntryRepository.createPartition(LocalDate.of(2023, 3, 1)));
+        salePartitionService.detachMonth(YearMonth.of(2023, 3));
+
+        assertEquals("Deleted !!!", clientService.deleteClient(client.getId()));
+
+        assertEquals(1L, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM sale_entry_2023_03 WHERE client_id = ?", Long.class, client.getId()));
+        assertEquals(0L, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM sale_entry WHERE client_id = ?", Long.class, client.getId()));
+    }
+
+    private static SaleEntryRequestDTO sale(Client client, double amount, LocalDateTime time) {
+        return new SaleEntryRequestDTO("cable", 1, amount, 1.0, time, false, client.getId(), null);
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.example.wholesalesalesbackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.wholesalesalesbackend.dto.ProfitAndSale;
+import com.example.wholesalesalesbackend.repository.AccessoryDailyRollupRepository;
+import com.example.wholesalesalesbackend.repository.ProfitAndSaleProjection;
+import com.example.wholesalesalesbackend.repository.SaleDailyRollupRepository;
+import com.example.wholesalesalesbackend.repository.SaleEntryRepository;
+
+@ExtendWith(MockitoExtension.class)
+class SaleRollupServiceTest {
+
+    @Mock
+    private SaleDailyRollupRepository rollupRepository;
+
+    @Mock
+    private AccessoryDailyRollupRepository accessoryRollupRepository;
+
+    @Mock
+    private SaleEntryRepository saleEntryRepository;
+
+    @Mock
+    private ClientBalanceService clientBalanceService;
+
+    @InjectMocks
+    private SaleRollupService saleRollupService;
+
+    @Test
+    void wholeDaysComeFromTheRollupOnly() {
+        when(rollupRepository.sumBetweenDays(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 3)))
+                .thenReturn(sums(10_000L, 1_000L));
+
+        ProfitAndSale totals = saleRollupService.getTotals(null, LocalDateTime.of(2024, 1, 1, 0, 0),
+                LocalDate.of(2024, 1, 3).atTime(LocalTime.MAX));
+
+        assertEquals(new ProfitAndSale(100.0, 10.0), totals);
+        verify(saleEntryRepository, never()).getTotalPriceAndProfitBetweenDates(any(), any());
+    }
+
+    @Test
+    void partialEdgeDaysAreSummedFromSaleEntries() {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 1, 4, 12, 0);
+        when(rollupRepository.sumBetweenDaysByClient(LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 3), 7L))
+                .thenReturn(sums(10_000L, 1_000L));
+        when(saleEntryRepository.getTotalPriceAndProfitBetweenDatesByClient(from,
+                LocalDateTime.of(2024, 1, 1, 23, 59, 59, 999_999_000), 7L)).thenReturn(sums(5L, 1L));
+        when(saleEntryRepository.getTotalPriceAndProfitBetweenDatesByClient(LocalDateTime.of(2024, 1, 4, 0, 0),
+                to, 7L)).thenReturn(sums(-205L, null));
+
+        ProfitAndSale totals = saleRollupService.getTotals(7L, from, to);
+
+        assertEquals(new ProfitAndSale(98.0, 10.01), totals);
+    }
+
+    @Test
+    void toAtTheLastWholeSecondLeavesThatDayToSaleEntries() {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 1, 3, 23, 59, 59);
+        when(rollupRepository.sumBetweenDays(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 2)))
+                .thenReturn(sums(10_000L, 1_000L));
+        when(saleEntryRepository.getTotalPriceAndProfitBetweenDates(LocalDateTime.of(2024, 1, 3, 0, 0), to))
+                .thenReturn(sums(500L, 50L));
+
+        // Sales later in 23:59:59 are outside BETWEEN from AND to, as in the raw query
+        assertEquals(new ProfitAndSale(105.0, 10.5), saleRollupService.getTotals(null, from, to));
+    }
+
+    @Test
+    void rangeInsideOneDaySkipsTheRollup() {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 1, 1, 12, 0);
+        when(saleEntryRepository.getTotalPriceAndProfitBetweenDates(from, to)).thenReturn(sums(1_234L, 56L));
+
+        ProfitAndSale totals = saleRollupService.getTotals(null, from, to);
+
+        assertEquals(new ProfitAndSale(12.34, 0.56), totals);
+        verify(rollupRepository, never()).sumBetweenDays(any(), any());
+    }
+
+    @Test
+    void openEndsUseTheWholeRollup() {
+        when(rollupRepository.sumBetweenDays(LocalDate.of(1970, 1, 1), LocalDate.of(9999, 12, 31)))
+                .thenReturn(sums(300L, 30L));
+
+        assertEquals(new ProfitAndSale(3.0, 0.3), saleRollupService.getTotals(null, null, null));
+    }
+
+    private static ProfitAndSaleProjection sums(Long sale, Long profit) {
+        return new ProfitAndSaleProjection() {
+            @Override
+            public Long getSale() {
+                return sale;
+            }
+
+            @Override
+            public Long getProfit() {
+                return profit;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.example.wholesalesalesbackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.wholesalesalesbackend.dto.SalesSeriesBucket;
+import com.example.wholesalesalesbackend.repository.AccessoryDailyRollupRepository;
+import com.example.wholesalesalesbackend.repository.SaleDailyRollupRepository;
+import com.example.wholesalesalesbackend.repository.SalesSeriesProjection;
+
+@ExtendWith(MockitoExtension.class)
+class SalesAnalyticsServiceTest {
+
+    @Mock
+    private SaleDailyRollupRepository rollupRepository;
+
+    @Mock
+    private AccessoryDailyRollupRepository accessoryRollupRepository;
+
+    @InjectMocks
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @Test
+    void partialFirstWeekIsLabelledWithFrom() {
+        LocalDate from = LocalDate.of(2024, 3, 10);
+        LocalDate to = LocalDate.of(2024, 3, 20);
+        when(rollupRepository.findSeries("week", from, to, null))
+                .thenReturn(List.of(bucket(LocalDate.of(2024, 3, 4), 1_000L), bucket(LocalDate.of(2024, 3, 11), 250L)));
+
+        List<SalesSeriesBucket> series = salesAnalyticsService.getSeries("week", from, to, null);
+
+        assertEquals(List.of(from, LocalDate.of(2024, 3, 11), LocalDate.of(2024, 3, 18)),
+                series.stream().map(SalesSeriesBucket::getBucket).toList());
+        assertEquals(10.0, series.get(0).getNetTotal());
+        assertEquals(2.5, series.get(1).getNetTotal());
+        assertEquals(0.0, series.get(2).getNetTotal());
+    }
+
+    @Test
+    void monthStartingOnTheFirstKeepsItsLabel() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 2, 15);
+        when(rollupRepository.findSeries("month", from, to, null)).thenReturn(List.of());
+
+        List<SalesSeriesBucket> series = salesAnalyticsService.getSeries("month", from, to, null);
+
+        assertEquals(List.of(from, LocalDate.of(2024, 2, 1)),
+                series.stream().map(SalesSeriesBucket::getBucket).toList());
+    }
+
+    private static SalesSeriesProjection bucket(LocalDate day, long netTotal) {
+        return new SalesSeriesProjection() {
+            @Override
+            public LocalDate getBucket() {
+                return day;
+            }
+
+            @Override
+            public Long getNetTotal() {
+                return netTotal;
+            }
+
+            @Override
+            public Long getNetProfit() {
+                return 0L;
+            }
+
+            @Override
+            public Long getEntryCount() {
+                return 1L;
+            }
+
+            @Override
+            public Long getReturnTotal() {
+                return 0L;
+            }
+
+            @Override
+            public Long getReturnProfit() {
+                return 0L;
+            }
+
+            @Override
+            public Long getReturnCount() {
+                return 0L;
+            }
+        };
+    }
+
+}